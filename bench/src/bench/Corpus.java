@@ -0,0 +1,93 @@
+package bench;
+
+import game.SudokuGame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * The puzzles bundled with the benchmarks, read from the {@code corpus}
+ * folder next to this class. Every corpus file holds one puzzle per line in
+ * the format read by {@code SudokuBatchSolver}, and every puzzle in it has
+ * exactly one solution.
+ * <ul>
+ * <li>{@code easy}: 50 puzzles with 36 clues from {@code SudokuGenerator}</li>
+ * <li>{@code hard}: 50 puzzles with 23 to 29 clues that the
+ * {@code LogicalSolver} either cannot finish or only finishes with its
+ * heaviest techniques</li>
+ * <li>{@code 17clue}: 22 puzzles with the minimum of 17 clues, no two of them
+ * equivalent under the Sudoku symmetries</li>
+ * </ul>
+ *
+ * @author Declan
+ *
+ */
+final class Corpus {
+
+	/**
+	 * The names of the bundled corpus files, without their extension
+	 */
+	static final String EASY = "easy", HARD = "hard", MINIMAL = "17clue";
+
+	private Corpus() {
+	}
+
+	/**
+	 * Reads the puzzles of a bundled corpus file.
+	 *
+	 * @param name
+	 *            the name of the corpus, such as {@link #EASY}
+	 * @return the row-major grid of every puzzle, with 0 representing a blank
+	 *         cell
+	 * @throws IllegalArgumentException
+	 *             if there is no corpus of that name
+	 */
+	static int[][] load(String name) {
+		InputStream in = Corpus.class.getResourceAsStream("corpus/" + name + ".txt");
+		if (in == null)
+			throw new IllegalArgumentException("No corpus named " + name);
+
+		ArrayList<int[]> puzzles = new ArrayList<int[]>();
+		try (BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+			String line;
+			while ((line = r.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty())
+					continue;
+				int[] grid = new int[line.length()];
+				for (int i = 0; i < grid.length; i++)
+					grid[i] = SudokuGame.fromSymbol(line.charAt(i));
+				puzzles.add(grid);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return puzzles.toArray(new int[puzzles.size()][]);
+	}
+
+	/**
+	 * Builds a new {@code SudokuGame} holding a puzzle, whose clues cannot be
+	 * edited, the way {@code SudokuGenerator} builds the games it generates.
+	 *
+	 * @param name
+	 *            the {@code String} name of the new {@code SudokuGame}
+	 * @param grid
+	 *            the row-major grid of the puzzle
+	 * @return a new {@code SudokuGame} with the clues of the puzzle
+	 */
+	static SudokuGame game(String name, int[] grid) {
+		int size = (int) Math.round(Math.sqrt(grid.length));
+		SudokuGame g = new SudokuGame(name, size);
+		for (int i = 0; i < grid.length; i++)
+			if (grid[i] != 0) {
+				g.set(i / size, i % size, grid[i]);
+				g.get(i / size, i % size).setEditable(false);
+			}
+		return g;
+	}
+}
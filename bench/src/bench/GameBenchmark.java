@@ -0,0 +1,148 @@
+package bench;
+
+import game.SudokuGame;
+import game.SudokuSolverToolkit;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the work the {@code SudokuBoard} asks of a {@code SudokuGame}
+ * while it is being played: recoloring after a move, checking whether it is
+ * won, and listing the candidates of its blank {@code Cells}. Every
+ * benchmark runs on the first puzzle of the easy corpus.
+ *
+ * @author Declan
+ *
+ * @see Corpus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+	/**
+	 * The puzzle, half way through being played
+	 */
+	private SudokuGame game;
+
+	/**
+	 * The puzzle, solved
+	 */
+	private SudokuGame solved;
+
+	/**
+	 * The location of every blank {@code Cell} of the puzzle, with x as the
+	 * column and y as the row
+	 */
+	private Point[] blanks;
+
+	/**
+	 * The row, column and solution value of the blank {@code Cell} that is
+	 * filled and cleared again by {@link #refreshAfterMove()}
+	 */
+	private int row, col, value;
+
+	@Setup
+	public void setUp() {
+		int[] puzzle = Corpus.load(Corpus.EASY)[0];
+		int size = (int) Math.round(Math.sqrt(puzzle.length));
+		solved = Corpus.game("solved", puzzle);
+		SudokuSolverToolkit.solveGame(solved);
+		solved.refresh();
+
+		// Fill every other blank cell, as if the game were half way through
+		game = Corpus.game("game", puzzle);
+		ArrayList<Point> open = new ArrayList<Point>();
+		boolean fill = false;
+		for (int i = 0; i < puzzle.length; i++) {
+			if (puzzle[i] != 0)
+				continue;
+			if (fill)
+				game.set(i / size, i % size, solved.get(i / size, i % size).getContent());
+			else
+				open.add(new Point(i % size, i / size));
+			fill = !fill;
+		}
+		game.refresh();
+		blanks = open.toArray(new Point[open.size()]);
+
+		row = blanks[0].y;
+		col = blanks[0].x;
+		value = solved.get(row, col).getContent();
+	}
+
+	/**
+	 * Fills a blank {@code Cell}, recolors the {@code SudokuGame}, then
+	 * clears the {@code Cell} and recolors it again, like a move and its undo
+	 */
+	@Benchmark
+	public void refreshAfterMove() {
+		game.set(row, col, value);
+		game.refresh();
+		game.set(row, col, 0);
+		game.refresh();
+	}
+
+	/**
+	 * Recolors a {@code SudokuGame} that has not changed since it was last
+	 * recolored, which should cost next to nothing
+	 */
+	@Benchmark
+	public void refreshUnchanged() {
+		game.refresh();
+	}
+
+	/**
+	 * Checks whether a {@code SudokuGame} that is half way through is won
+	 */
+	@Benchmark
+	public boolean isWonPlaying() {
+		return game.isWon();
+	}
+
+	/**
+	 * Checks whether a solved {@code SudokuGame} is won, which has to look at
+	 * every {@code Cell} if the check is not incremental
+	 */
+	@Benchmark
+	public boolean isWonSolved() {
+		return solved.isWon();
+	}
+
+	/**
+	 * Lists the candidates of every blank {@code Cell}, as the tooltips and the
+	 * scroll wheel of the {@code SudokuBoard} do one {@code Cell} at a time
+	 */
+	@Benchmark
+	public void calculatePossible(Blackhole bh) {
+		for (Point p : blanks)
+			bh.consume(SudokuSolverToolkit.calculatePossible(game, p));
+	}
+
+	/**
+	 * Works out the candidate mask of every blank {@code Cell}, without
+	 * building a list
+	 */
+	@Benchmark
+	public void candidateMask(Blackhole bh) {
+		for (Point p : blanks)
+			bh.consume(SudokuSolverToolkit.candidateMask(game, p.x, p.y));
+	}
+}
@@ -0,0 +1,127 @@
+package bench;
+
+import game.SudokuGame;
+import game.SudokuSolverToolkit;
+import gui.SudokuRegister;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a {@code SudokuRegister} of games being saved to disk and loaded
+ * back, as {@code SudokuGameFrame} does when it is closed and opened. The
+ * register holds the first puzzles of the hard corpus, each played half way
+ * with a history of moves, and is written to a temporary file.
+ *
+ * @author Declan
+ *
+ * @see Corpus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegisterBenchmark {
+
+	/**
+	 * The number of games in the register
+	 */
+	@Param({ "1", "50" })
+	public int games;
+
+	/**
+	 * The register that is saved
+	 */
+	private SudokuRegister<SudokuGame> register;
+
+	/**
+	 * The register that is loaded into
+	 */
+	private SudokuRegister<SudokuGame> loaded;
+
+	/**
+	 * The file the register is saved to
+	 */
+	private File file;
+
+	@Setup
+	public void setUp() throws IOException {
+		int[][] puzzles = Corpus.load(Corpus.HARD);
+		register = new SudokuRegister<SudokuGame>();
+		loaded = new SudokuRegister<SudokuGame>();
+		for (int i = 0; i < games; i++) {
+			int[] puzzle = puzzles[i % puzzles.length];
+			int size = (int) Math.round(Math.sqrt(puzzle.length));
+			SudokuGame g = Corpus.game("game " + i, puzzle);
+			SudokuGame solved = Corpus.game("solved", puzzle);
+			SudokuSolverToolkit.solveGame(solved);
+
+			// Fill every other blank cell, with a turn for every move
+			boolean fill = false;
+			for (int j = 0; j < puzzle.length; j++) {
+				if (puzzle[j] != 0)
+					continue;
+				if (fill) {
+					int x = j / size, y = j % size;
+					int prev = g.set(x, y, solved.get(x, y).getContent());
+					g.registerTurn(g.get(x, y), prev);
+				}
+				fill = !fill;
+			}
+			g.refresh();
+			register.register(g);
+		}
+
+		file = File.createTempFile("register", ".ser");
+		file.deleteOnExit();
+		register.saveState(file.getPath());
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+	}
+
+	/**
+	 * Saves the register
+	 */
+	@Benchmark
+	public void saveState() {
+		register.saveState(file.getPath());
+	}
+
+	/**
+	 * Loads the register that was saved
+	 */
+	@Benchmark
+	public SudokuRegister<SudokuGame> loadState() {
+		loaded.loadState(file.getPath());
+		return loaded;
+	}
+
+	/**
+	 * Saves the register and loads it back
+	 */
+	@Benchmark
+	public SudokuRegister<SudokuGame> roundTrip() {
+		register.saveState(file.getPath());
+		loaded.loadState(file.getPath());
+		return loaded;
+	}
+}
@@ -0,0 +1,114 @@
+package bench;
+
+import game.SolverStrategy;
+import game.SudokuGame;
+import game.SudokuSolverToolkit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@code SudokuSolverToolkit.solveGame} and
+ * {@code SudokuSolverToolkit.countSolutions} over every puzzle of a bundled
+ * corpus, so one operation is one pass over the whole corpus. The toolkit's
+ * {@code SolutionCache} is removed before every trial, so every puzzle is
+ * really searched.
+ * <p>
+ * {@code SolverStrategy.BACKTRACKING} is left out of the default parameters
+ * because it takes minutes on some of the 17 clue puzzles, but it can still
+ * be measured with {@code -p strategy=BACKTRACKING}.
+ *
+ * @author Declan
+ *
+ * @see Corpus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+	/**
+	 * The name of the corpus to solve
+	 */
+	@Param({ Corpus.EASY, Corpus.HARD, Corpus.MINIMAL })
+	public String corpus;
+
+	/**
+	 * The name of the {@code SolverStrategy} to solve with
+	 */
+	@Param({ "MINIMUM_REMAINING_VALUES", "CONSTRAINT_PROPAGATION", "DANCING_LINKS" })
+	public String strategy;
+
+	/**
+	 * The puzzles of the corpus
+	 */
+	private int[][] puzzles;
+
+	/**
+	 * The {@code SolverStrategy} to solve with
+	 */
+	private SolverStrategy s;
+
+	/**
+	 * A {@code SudokuGame} for every puzzle, which is only read from
+	 */
+	private SudokuGame[] games;
+
+	/**
+	 * A fresh {@code SudokuGame} for every puzzle, rebuilt before every
+	 * invocation because solving fills it in
+	 */
+	private SudokuGame[] unsolved;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() {
+		SudokuSolverToolkit.setSolutionCache(null);
+		puzzles = Corpus.load(corpus);
+		s = SolverStrategy.valueOf(strategy);
+		games = new SudokuGame[puzzles.length];
+		unsolved = new SudokuGame[puzzles.length];
+		for (int i = 0; i < puzzles.length; i++)
+			games[i] = Corpus.game(corpus + " " + i, puzzles[i]);
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpInvocation() {
+		for (int i = 0; i < puzzles.length; i++)
+			unsolved[i] = Corpus.game(corpus + " " + i, puzzles[i]);
+	}
+
+	/**
+	 * Solves every puzzle of the corpus in place
+	 */
+	@Benchmark
+	public void solveGame(Blackhole bh) {
+		for (SudokuGame g : unsolved)
+			bh.consume(SudokuSolverToolkit.solveGame(g, s));
+	}
+
+	/**
+	 * Checks that every puzzle of the corpus has exactly one solution, the way
+	 * the generator and the editor do
+	 */
+	@Benchmark
+	public void countSolutions(Blackhole bh) {
+		for (SudokuGame g : games)
+			bh.consume(SudokuSolverToolkit.countSolutions(g, s, 2));
+	}
+}
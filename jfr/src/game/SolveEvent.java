@@ -0,0 +1,133 @@
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder event of one solve or count of the
+ * {@code SudokuSolverToolkit}, carrying its {@code SolveStatistics}. This
+ * class is kept out of {@code src} because Java 8 has no {@code jdk.jfr}, and
+ * is only compiled when the JDK building the project has it. One instance is
+ * made by name as the {@code SolveRecorder} of {@code SolveStatistics}, so a
+ * build or JVM without Flight Recorder simply records nothing, and a JVM that
+ * is not recording only pays for one check per solve.
+ *
+ * @author Declan
+ *
+ */
+@Name("game.Solve")
+@Label("Sudoku Solve")
+@Category("Sudoku")
+@Description("A solve or solution count of the SudokuSolverToolkit")
+class SolveEvent extends Event implements SolveRecorder {
+
+	/**
+	 * The name of the {@code SolverStrategy} of the solve
+	 */
+	@Label("Strategy")
+	String strategy;
+
+	/**
+	 * The number of solutions found, up to the limit of a count
+	 */
+	@Label("Solutions")
+	long solutions;
+
+	/**
+	 * Whether or not the answer came from the {@code SolutionCache}
+	 */
+	@Label("Cached")
+	boolean cached;
+
+	/**
+	 * The number of steps of the search visited
+	 */
+	@Label("Nodes")
+	long nodes;
+
+	/**
+	 * The number of candidates placed as guesses
+	 */
+	@Label("Candidates Evaluated")
+	long candidates;
+
+	/**
+	 * The number of guesses that led to no solution
+	 */
+	@Label("Backtracks")
+	long backtracks;
+
+	/**
+	 * The most guesses the search was nested in
+	 */
+	@Label("Max Depth")
+	int maxDepth;
+
+	/**
+	 * The number of times a {@code SudokuGame} was checked for being won
+	 */
+	@Label("isWon Calls")
+	long isWonCalls;
+
+	/**
+	 * The nanoseconds spent validating the puzzle
+	 */
+	@Label("Validation Time")
+	@Timespan
+	long validation;
+
+	/**
+	 * The nanoseconds spent searching
+	 */
+	@Label("Search Time")
+	@Timespan
+	long search;
+
+	/**
+	 * Starts the event of a solve, if any recording wants it. This is called
+	 * on the one event made as the {@code SolveRecorder}, which is never
+	 * committed itself.
+	 *
+	 * @return the started event, or null if no recording wants it
+	 */
+	@Override
+	public Object start() {
+		if (!isEnabled())
+			return null;
+		SolveEvent e = new SolveEvent();
+		e.begin();
+		return e;
+	}
+
+	/**
+	 * Ends the event of a solve and commits it with the statistics of the
+	 * solve.
+	 *
+	 * @param o
+	 *            the event returned by {@link #start()}
+	 * @param st
+	 *            the statistics of the solve
+	 */
+	@Override
+	public void finish(Object o, SolveStatistics st) {
+		SolveEvent e = (SolveEvent) o;
+		e.end();
+		if (!e.shouldCommit())
+			return;
+		e.strategy = String.valueOf(st.getStrategy());
+		e.solutions = st.getSolutions();
+		e.cached = st.isCached();
+		e.nodes = st.getNodes();
+		e.candidates = st.getCandidatesEvaluated();
+		e.backtracks = st.getBacktracks();
+		e.maxDepth = st.getMaxDepth();
+		e.isWonCalls = st.getIsWonCalls();
+		e.validation = st.getValidationNanos();
+		e.search = st.getSearchNanos();
+		e.commit();
+	}
+}
@@ -0,0 +1,210 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * The compact core of a Sudoku board: one {@code byte} per cell holding its
+ * value, stored row-major with 0 representing a blank cell, and one bit per
+ * cell marking the givens that cannot be edited. A regular 9x9 board takes
+ * about a hundred bytes, and copying it for a parallel search is a single
+ * array copy.
+ * <p>
+ * The {@code Cells} of a {@code SudokuGame} are views over a {@code Board}, so
+ * the solver and the validators can work on the values directly while the
+ * {@code SudokuBoard} keeps using the {@code Cells}.
+ *
+ * @author Declan
+ *
+ */
+public final class Board {
+
+	/**
+	 * The side length of the board
+	 */
+	private final int size;
+
+	/**
+	 * The value of every cell, stored row-major with 0 representing a blank
+	 * cell
+	 */
+	private final byte[] values;
+
+	/**
+	 * The bitset of the cells that are givens, 64 cells to a {@code long}
+	 */
+	private final long[] givens;
+
+	/**
+	 * The Zobrist hash of the values of the board, updated on every change
+	 *
+	 * @see Zobrist
+	 */
+	private long hash;
+
+	/**
+	 * Constructs and initializes a completely blank {@code Board} of the given
+	 * size
+	 *
+	 * @param s
+	 *            the side length of the board, such as 9, 16 or 25
+	 * @throws IllegalArgumentException
+	 *             if the size is not a supported board size
+	 * @see SudokuGame#isValidSize(int)
+	 */
+	public Board(int s) {
+		if (!SudokuGame.isValidSize(s))
+			throw new IllegalArgumentException("Invalid board size " + s);
+		size = s;
+		values = new byte[s * s];
+		givens = new long[(s * s + 63) >>> 6];
+		hash = Zobrist.blank(s);
+	}
+
+	/**
+	 * Constructs and initializes a {@code Board} holding the values of a
+	 * row-major grid, none of which are givens
+	 *
+	 * @param grid
+	 *            the row-major grid of values, with 0 representing a blank
+	 *            cell
+	 * @throws IllegalArgumentException
+	 *             if the grid is not the size of a supported board or holds a
+	 *             value that does not fit on it
+	 */
+	public Board(int[] grid) {
+		this((int) Math.round(Math.sqrt(grid.length)));
+		if (grid.length != values.length)
+			throw new IllegalArgumentException("Invalid number of cells " + grid.length);
+		for (int i = 0; i < grid.length; i++)
+			set(i, grid[i]);
+	}
+
+	/**
+	 * Constructs and initializes an independent copy of a {@code Board}
+	 *
+	 * @param b
+	 *            the {@code Board} to copy
+	 */
+	public Board(Board b) {
+		size = b.size;
+		values = b.values.clone();
+		givens = b.givens.clone();
+		hash = b.hash;
+	}
+
+	/**
+	 * @return the side length of the board
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @param row
+	 *            the row of the cell
+	 * @param col
+	 *            the column of the cell
+	 * @return the row-major index of the cell
+	 */
+	public int index(int row, int col) {
+		return row * size + col;
+	}
+
+	/**
+	 * @param i
+	 *            the row-major index of the cell
+	 * @return the value of the cell, or 0 if it is blank
+	 */
+	public int get(int i) {
+		return values[i];
+	}
+
+	/**
+	 * Sets the value of a cell, whether or not it is a given
+	 *
+	 * @param i
+	 *            the row-major index of the cell
+	 * @param v
+	 *            the value to set, or 0 to make the cell blank
+	 * @return the value the cell previously held
+	 * @throws IllegalArgumentException
+	 *             if the value does not fit on the board
+	 */
+	public int set(int i, int v) {
+		if (v < 0 || v > size)
+			throw new IllegalArgumentException("Invalid value " + v + " for a board of size " + size);
+		int prev = values[i];
+		values[i] = (byte) v;
+		hash ^= Zobrist.key(i, prev) ^ Zobrist.key(i, v);
+		return prev;
+	}
+
+	/**
+	 * @return the 64-bit Zobrist hash of the values of the board, which is
+	 *         kept up to date by every change instead of being recalculated.
+	 *         Boards holding the same values have the same hash, whichever
+	 *         cells are givens
+	 */
+	public long getZobristHash() {
+		return hash;
+	}
+
+	/**
+	 * @param i
+	 *            the row-major index of the cell
+	 * @return whether or not the cell is a given that cannot be edited
+	 */
+	public boolean isGiven(int i) {
+		return (givens[i >>> 6] & 1L << i) != 0;
+	}
+
+	/**
+	 * @param i
+	 *            the row-major index of the cell
+	 * @param b
+	 *            whether or not the cell should be a given
+	 */
+	public void setGiven(int i, boolean b) {
+		if (b)
+			givens[i >>> 6] |= 1L << i;
+		else
+			givens[i >>> 6] &= ~(1L << i);
+	}
+
+	/**
+	 * @return a new row-major grid of the values of the board, with 0
+	 *         representing a blank cell
+	 */
+	public int[] toGrid() {
+		int[] grid = new int[values.length];
+		for (int i = 0; i < grid.length; i++)
+			grid[i] = values[i];
+		return grid;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Board))
+			return false;
+		Board b = (Board) o;
+		return Arrays.equals(values, b.values) && Arrays.equals(givens, b.givens);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (int) (hash ^ hash >>> 32) + Arrays.hashCode(givens);
+	}
+
+	/**
+	 * @return the values of the board on one line in row-major order, written
+	 *         with {@link SudokuGame#toSymbol(int)} and {@code .} for a blank
+	 *         cell
+	 */
+	@Override
+	public String toString() {
+		char[] out = new char[values.length];
+		for (int i = 0; i < out.length; i++)
+			out[i] = values[i] == 0 ? '.' : SudokuGame.toSymbol(values[i]);
+		return new String(out);
+	}
+}
@@ -0,0 +1,352 @@
+package game;
+
+/**
+ * A compact search state for a Sudoku board of any supported size that keeps
+ * the candidate masks of every row, column and box, as well as the number of
+ * candidates of every blank cell, up to date as values are placed and removed.
+ * This lets the solver find the most constrained cell without recalculating
+ * candidates from the {@code Cells} of a {@code SudokuGame}.
+ * <p>
+ * Every placed value is recorded on a trail, so that a search can take a
+ * {@link #mark()} before a guess and {@link #undo(int)} every value placed
+ * since then, including those placed by {@link #propagate()}, without copying
+ * the grid.
+ *
+ * @author Declan
+ *
+ */
+class CandidateGrid {
+
+	/**
+	 * The row, column and box index of every cell
+	 */
+	private final int[] row, col, box;
+
+	/**
+	 * The distinct cells that share a row, column or box with every cell
+	 */
+	private final int[][] peers;
+
+	/**
+	 * The cells of every row, column and box
+	 */
+	private final int[][] units;
+
+	/**
+	 * The mask containing every value of the board
+	 */
+	private final int all;
+
+	/**
+	 * The value of every cell, stored row-major with 0 representing a blank
+	 * cell
+	 */
+	private final int[] values;
+
+	/**
+	 * The masks of the values used in every row, column and box
+	 */
+	private final int[] rows, cols, boxes;
+
+	/**
+	 * The number of candidates of every blank cell
+	 */
+	private final int[] counts;
+
+	/**
+	 * The number of blank cells
+	 */
+	private int blanks;
+
+	/**
+	 * The Zobrist hash of the values of the grid, updated as values are placed
+	 * and removed
+	 */
+	private long hash;
+
+	/**
+	 * The cells that have been placed, in the order they were placed
+	 */
+	private final int[] trail;
+
+	/**
+	 * The number of cells on the trail
+	 */
+	private int placed;
+
+	/**
+	 * Whether or not the values the grid was created with are free of
+	 * duplicates
+	 */
+	private final boolean consistent;
+
+	/**
+	 * Constructs and initializes a {@code CandidateGrid} from a row-major grid
+	 * of values.
+	 *
+	 * @param grid
+	 *            the row-major grid of values, with 0 representing a blank
+	 *            cell. The array is copied
+	 * @throws IllegalArgumentException
+	 *             if the grid is not the size of a supported board
+	 */
+	CandidateGrid(int[] grid) {
+		Topology t = Topology.forCells(grid.length);
+		row = t.row;
+		col = t.col;
+		box = t.boxOf;
+		peers = t.peers;
+		units = t.units;
+		all = Candidates.all(t.size);
+		rows = new int[t.size];
+		cols = new int[t.size];
+		boxes = new int[t.size];
+		counts = new int[t.cells];
+		trail = new int[t.cells];
+
+		values = grid.clone();
+		boolean ok = true;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] < 0 || values[i] > t.size) {
+				ok = false;
+				continue;
+			}
+			int bit = Candidates.of(values[i]);
+			if (bit == 0) {
+				blanks++;
+				continue;
+			}
+			if (((rows[row[i]] | cols[col[i]] | boxes[box[i]]) & bit) != 0)
+				ok = false;
+			rows[row[i]] |= bit;
+			cols[col[i]] |= bit;
+			boxes[box[i]] |= bit;
+		}
+		for (int i = 0; i < values.length; i++)
+			if (values[i] == 0)
+				counts[i] = Candidates.count(candidates(i));
+		hash = ok ? Zobrist.hash(values) : 0L;
+		consistent = ok;
+	}
+
+	/**
+	 * Constructs and initializes an independent copy of a
+	 * {@code CandidateGrid}. The trail of the copy starts out empty, so values
+	 * placed before the copy was made cannot be undone in the copy.
+	 *
+	 * @param c
+	 *            the {@code CandidateGrid} to copy
+	 */
+	CandidateGrid(CandidateGrid c) {
+		row = c.row;
+		col = c.col;
+		box = c.box;
+		peers = c.peers;
+		units = c.units;
+		all = c.all;
+		values = c.values.clone();
+		rows = c.rows.clone();
+		cols = c.cols.clone();
+		boxes = c.boxes.clone();
+		counts = c.counts.clone();
+		trail = new int[c.trail.length];
+		blanks = c.blanks;
+		hash = c.hash;
+		consistent = c.consistent;
+	}
+
+	/**
+	 * @return whether or not the values the grid was created with are free of
+	 *         duplicates
+	 */
+	boolean isConsistent() {
+		return consistent;
+	}
+
+	/**
+	 * @return whether or not every cell has a value
+	 */
+	boolean isFull() {
+		return blanks == 0;
+	}
+
+	/**
+	 * @return the number of blank cells
+	 */
+	int blanks() {
+		return blanks;
+	}
+
+	/**
+	 * @return the Zobrist hash of the values of the grid
+	 * @see Zobrist
+	 */
+	long hash() {
+		return hash;
+	}
+
+	/**
+	 * @param i
+	 *            the row-major index of the cell
+	 * @return the value of the cell, or 0 if it is blank
+	 */
+	int get(int i) {
+		return values[i];
+	}
+
+	/**
+	 * @param i
+	 *            the row-major index of the cell
+	 * @return the candidate mask of the cell, calculated from the values of
+	 *         its row, column and box
+	 */
+	int candidates(int i) {
+		return all & ~(rows[row[i]] | cols[col[i]] | boxes[box[i]]);
+	}
+
+	/**
+	 * Places a value in a blank cell, and removes it from the candidate counts
+	 * of every blank peer that could still hold it. The cell is recorded on
+	 * the trail.
+	 *
+	 * @param i
+	 *            the row-major index of the blank cell
+	 * @param v
+	 *            the value to place, which must be a candidate of the cell
+	 */
+	void place(int i, int v) {
+		int bit = Candidates.of(v);
+		for (int p : peers[i])
+			if (values[p] == 0 && (candidates(p) & bit) != 0)
+				counts[p]--;
+		rows[row[i]] |= bit;
+		cols[col[i]] |= bit;
+		boxes[box[i]] |= bit;
+		values[i] = v;
+		blanks--;
+		hash ^= Zobrist.key(i, v);
+		trail[placed++] = i;
+	}
+
+	/**
+	 * @return a mark of the current position of the trail, to be passed to
+	 *         {@link #undo(int)}
+	 */
+	int mark() {
+		return placed;
+	}
+
+	/**
+	 * Removes every value placed since the specified mark was taken, in the
+	 * reverse order they were placed.
+	 *
+	 * @param m
+	 *            the mark returned by {@link #mark()}
+	 */
+	void undo(int m) {
+		while (placed > m)
+			remove(trail[--placed]);
+	}
+
+	/**
+	 * Removes the value placed in a cell, and restores it to the candidate
+	 * counts of every blank peer that can hold it again.
+	 *
+	 * @param i
+	 *            the row-major index of the cell
+	 */
+	private void remove(int i) {
+		int bit = Candidates.of(values[i]);
+		rows[row[i]] &= ~bit;
+		cols[col[i]] &= ~bit;
+		boxes[box[i]] &= ~bit;
+		hash ^= Zobrist.key(i, values[i]);
+		values[i] = 0;
+		blanks++;
+		for (int p : peers[i])
+			if (values[p] == 0 && (candidates(p) & bit) != 0)
+				counts[p]++;
+	}
+
+	/**
+	 * Repeatedly fills every naked single, a blank cell with only one
+	 * candidate, and every hidden single, a value with only one blank cell
+	 * left in a row, column or box, until neither remains. The values placed
+	 * are recorded on the trail and are not removed if a contradiction is
+	 * found.
+	 *
+	 * @return false if a blank cell has no candidates or a value has no place
+	 *         left in a row, column or box, true otherwise
+	 */
+	boolean propagate() {
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+
+			// Naked singles
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != 0)
+					continue;
+				if (counts[i] == 0)
+					return false;
+				if (counts[i] == 1) {
+					place(i, Candidates.first(candidates(i)));
+					changed = true;
+				}
+			}
+
+			// Hidden singles
+			for (int[] unit : units) {
+				int used = 0, once = 0, twice = 0;
+				for (int i : unit) {
+					if (values[i] != 0) {
+						used |= Candidates.of(values[i]);
+						continue;
+					}
+					int m = candidates(i);
+					twice |= once & m;
+					once |= m;
+				}
+				if ((used | once) != all)
+					return false;
+
+				int singles = once & ~twice;
+				for (int v = Candidates.first(singles); v != 0; v = Candidates.next(singles, v))
+					for (int i : unit)
+						if (values[i] == 0 && Candidates.contains(candidates(i), v)) {
+							place(i, v);
+							changed = true;
+							break;
+						}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the row-major index of the blank cell with the fewest
+	 *         candidates, or -1 if there are no blank cells
+	 */
+	int mostConstrained() {
+		int best = -1;
+		int min = Integer.MAX_VALUE;
+		for (int i = 0; i < values.length; i++)
+			if (values[i] == 0 && counts[i] < min) {
+				min = counts[i];
+				best = i;
+				if (min <= 1)
+					break;
+			}
+		return best;
+	}
+
+	/**
+	 * Copies the values of the grid into a row-major array.
+	 *
+	 * @param grid
+	 *            the array to copy the values into
+	 */
+	void copyInto(int[] grid) {
+		System.arraycopy(values, 0, grid, 0, values.length);
+	}
+}
@@ -0,0 +1,128 @@
+package game;
+
+import java.util.ArrayList;
+
+/**
+ * This class contains a collection of static helper methods for working with
+ * candidate masks. A candidate mask is a primitive {@code int} in which bit
+ * {@code v - 1} is set when the value {@code v} is still possible for a
+ * {@code Cell}, so the values 1-9 of a regular Sudoku board fit in the lowest
+ * 9 bits, and the values of the largest supported board still fit in an
+ * {@code int}.
+ *
+ * <pre>
+ * for (int v = Candidates.first(mask); v != 0; v = Candidates.next(mask, v))
+ * 	...
+ * </pre>
+ *
+ * @author Declan
+ *
+ */
+public final class Candidates {
+
+	/**
+	 * The mask containing every value from 1-9
+	 */
+	public static final int ALL = 0x1FF;
+
+	/**
+	 * The mask containing no values
+	 */
+	public static final int NONE = 0;
+
+	private Candidates() {
+	}
+
+	/**
+	 * @param size
+	 *            the side length of the board
+	 * @return the mask containing every value of a board of the specified
+	 *         size
+	 */
+	public static int all(int size) {
+		return (1 << size) - 1;
+	}
+
+	/**
+	 * @param v
+	 *            the value, from 1 to the size of the board, to build a mask
+	 *            for
+	 * @return the mask containing only the specified value, or an empty mask
+	 *         if the value is 0
+	 */
+	public static int of(int v) {
+		return v == 0 ? NONE : 1 << (v - 1);
+	}
+
+	/**
+	 * @param mask
+	 *            the candidate mask to check
+	 * @param v
+	 *            the value to look for
+	 * @return whether or not the specified value is contained in the mask
+	 */
+	public static boolean contains(int mask, int v) {
+		return v != 0 && (mask & (1 << (v - 1))) != 0;
+	}
+
+	/**
+	 * @param mask
+	 *            the candidate mask to count
+	 * @return the number of values contained in the mask
+	 */
+	public static int count(int mask) {
+		return Integer.bitCount(mask);
+	}
+
+	/**
+	 * @param mask
+	 *            the candidate mask to look in
+	 * @return the lowest value contained in the mask, or 0 if the mask is empty
+	 */
+	public static int first(int mask) {
+		return mask == 0 ? 0 : Integer.numberOfTrailingZeros(mask) + 1;
+	}
+
+	/**
+	 * @param mask
+	 *            the candidate mask to look in
+	 * @param v
+	 *            the value to start looking after
+	 * @return the lowest value in the mask that is greater than the specified
+	 *         value, or 0 if there is none
+	 */
+	public static int next(int mask, int v) {
+		return first(mask & (-1 << v));
+	}
+
+	/**
+	 * @param mask
+	 *            the candidate mask to convert
+	 * @return an {@code ArrayList} of type {@code Integer} containing the
+	 *         values of the mask in ascending order
+	 */
+	public static ArrayList<Integer> toList(int mask) {
+		ArrayList<Integer> res = new ArrayList<Integer>(count(mask));
+		for (int v = first(mask); v != 0; v = next(mask, v))
+			res.add(v);
+		return res;
+	}
+
+	/**
+	 * @param mask
+	 *            the candidate mask to convert
+	 * @return the values of the mask in the same format as
+	 *         {@link java.util.AbstractCollection#toString()}, with values
+	 *         above 9 written as letters
+	 * @see SudokuGame#toSymbol(int)
+	 */
+	public static String toString(int mask) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int v = first(mask); v != 0; v = next(mask, v)) {
+			if (sb.length() > 1)
+				sb.append(", ");
+			sb.append(SudokuGame.toSymbol(v));
+		}
+		return sb.append(']').toString();
+	}
+}
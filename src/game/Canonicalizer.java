@@ -0,0 +1,558 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps a puzzle to a canonical representative of every puzzle that is the same
+ * up to the symmetries of Sudoku: relabelling the digits, reordering the rows
+ * within a band and the columns within a stack, reordering the bands and the
+ * stacks, and transposing the grid. Two puzzles are equivalent exactly when
+ * they have the same canonical form, so the form can be used to find
+ * duplicates in a library of puzzles and as the key of a cache of results.
+ * <p>
+ * The canonical form is the smallest grid under those symmetries, read
+ * row-major, in which the digits are relabelled 1-9 in the order they first
+ * appear and a blank cell counts as larger than every digit, so the form
+ * packs the clues towards the top left. It is found one row at a time,
+ * keeping only the ways of placing the rows and columns that write the
+ * smallest rows so far, and a column is only placed once a row tells the
+ * source columns that could go there apart. Only regular 9x9 boards can be
+ * canonicalized.
+ *
+ * @author Declan
+ *
+ */
+public class Canonicalizer {
+
+	/**
+	 * The key a blank cell is compared with, which is larger than every digit
+	 */
+	private static final int BLANK = 10;
+
+	/**
+	 * The grid being canonicalized, as given and transposed
+	 */
+	private final int[][] sources = new int[2][81];
+
+	/**
+	 * Whether or not every row of the grid, as given and transposed, is
+	 * completely blank
+	 */
+	private final boolean[][] blankRows = new boolean[2][9];
+
+	/**
+	 * The branches that have written the smallest rows of the form so far,
+	 * and the branches that write the smallest next row
+	 */
+	private List<Branch> branches = new ArrayList<Branch>(), smallest = new ArrayList<Branch>();
+
+	/**
+	 * The keys of the smallest next row found so far, with {@link #BLANK} for
+	 * a blank cell
+	 */
+	private final int[] best = new int[9];
+
+	/**
+	 * The keys of the next row written so far by the current branch
+	 */
+	private final int[] current = new int[9];
+
+	/**
+	 * The number of times a smaller next row has been found
+	 */
+	private int found;
+
+	/**
+	 * Constructs and initializes a {@code Canonicalizer} for a row-major grid
+	 * of values.
+	 *
+	 * @param grid
+	 *            the row-major grid of values, with 0 representing a blank
+	 *            cell
+	 */
+	private Canonicalizer(int[] grid) {
+		if (grid.length != 81)
+			throw new IllegalArgumentException("Expected 81 cells but got " + grid.length);
+		for (int i = 0; i < 9; i++)
+			blankRows[0][i] = blankRows[1][i] = true;
+		for (int i = 0; i < 81; i++) {
+			int v = grid[i];
+			if (v < 0 || v > 9)
+				throw new IllegalArgumentException("Invalid value " + v + " at cell " + i);
+			sources[0][i] = v;
+			sources[1][(i % 9) * 9 + i / 9] = v;
+			if (v != 0)
+				blankRows[0][i / 9] = blankRows[1][i % 9] = false;
+		}
+	}
+
+	/**
+	 * Finds the canonical form of a {@code SudokuGame}, without changing it.
+	 *
+	 * @param g
+	 *            the {@code SudokuGame} to canonicalize
+	 * @return the canonical {@code Form} of the game
+	 * @throws IllegalArgumentException
+	 *             if the game is not a regular 9x9 board
+	 */
+	public static Form canonicalize(SudokuGame g) {
+		return canonicalize(SudokuSolverToolkit.toGrid(g));
+	}
+
+	/**
+	 * Finds the canonical form of a row-major grid, without changing it.
+	 *
+	 * @param grid
+	 *            the row-major grid of values, with 0 representing a blank
+	 *            cell
+	 * @return the canonical {@code Form} of the grid
+	 * @throws IllegalArgumentException
+	 *             if the grid does not have 81 cells or holds a value outside
+	 *             0-9
+	 */
+	public static Form canonicalize(int[] grid) {
+		Canonicalizer c = new Canonicalizer(grid);
+		c.branches.add(new Branch(0));
+		c.branches.add(new Branch(1));
+		for (int r = 0; r < 9; r++)
+			c.extend(r);
+		Transform x = c.branches.get(0).toTransform();
+		return new Form(x.apply(grid), x);
+	}
+
+	/**
+	 * Extends every branch by every source row that can go at the specified
+	 * row of the form, and keeps only the extensions that write the smallest
+	 * row. Only one of the completely blank source rows that could go there
+	 * is tried, since they are interchangeable.
+	 *
+	 * @param r
+	 *            the row of the form to place a source row at
+	 */
+	private void extend(int r) {
+		Arrays.fill(best, BLANK + 1);
+		smallest.clear();
+		for (Branch b : branches) {
+			boolean blankTried = false;
+			for (int y = 0; y < 9; y++) {
+				if ((b.usedRows & 1 << y) != 0)
+					continue;
+				if (r % 3 == 0 ? (b.usedRows & 7 << y / 3 * 3) != 0 : y / 3 != b.rows[r - 1] / 3)
+					continue;
+				if (blankRows[b.t][y]) {
+					if (blankTried)
+						continue;
+					blankTried = true;
+				}
+
+				b.rows[r] = y;
+				b.usedRows |= 1 << y;
+				cells(b, sources[b.t], y * 9, 0, false);
+				b.usedRows &= ~(1 << y);
+			}
+		}
+		List<Branch> l = branches;
+		branches = smallest;
+		smallest = l;
+	}
+
+	/**
+	 * Writes the cell at the specified column of the next row of the form,
+	 * and then every cell after it. A column of the form that has no source
+	 * column yet gets the one that makes the cell smallest, trying every one
+	 * that ties, unless every source column that could go there is blank in
+	 * this row too, in which case it is left for a later row.
+	 *
+	 * @param b
+	 *            the branch writing the row
+	 * @param src
+	 *            the grid the branch reads from
+	 * @param y
+	 *            the row-major index of the first cell of the source row
+	 * @param c
+	 *            the column of the form to write
+	 * @param less
+	 *            whether or not the row written so far is already smaller
+	 *            than the smallest row
+	 */
+	private void cells(Branch b, int[] src, int y, int c, boolean less) {
+		if (c == 9) {
+			if (less) {
+				System.arraycopy(current, 0, best, 0, 9);
+				smallest.clear();
+				found++;
+			}
+			smallest.add(new Branch(b));
+			return;
+		}
+
+		int[] labels = b.labels;
+		if (b.cols[c] >= 0) {
+			int v = src[y + b.cols[c]];
+			boolean fresh = v != 0 && labels[v] == 0;
+			int key = v == 0 ? BLANK : fresh ? b.next : labels[v];
+			if (!less && key > best[c])
+				return;
+
+			if (fresh)
+				labels[v] = b.next++;
+			current[c] = key;
+			cells(b, src, y, c + 1, less || key < best[c]);
+			if (fresh) {
+				labels[v] = 0;
+				b.next--;
+			}
+			return;
+		}
+
+		// The source columns that could go here, and the smallest key they give
+		int stack = b.stacks[c / 3];
+		int open = stack >= 0 ? 7 << stack * 3 & ~b.usedCols : 0;
+		if (stack < 0)
+			for (int k = 0; k < 3; k++)
+				if ((b.usedStacks & 1 << k) == 0)
+					open |= 7 << k * 3;
+		int min = BLANK;
+		for (int x = 0; x < 9; x++)
+			if ((open & 1 << x) != 0 && src[y + x] != 0)
+				min = Math.min(min, labels[src[y + x]] != 0 ? labels[src[y + x]] : b.next);
+		if (!less && min > best[c])
+			return;
+
+		current[c] = min;
+		less = less || min < best[c];
+		if (min == BLANK) {
+			cells(b, src, y, c + 1, less);
+			return;
+		}
+
+		for (int x = 0; x < 9; x++) {
+			int v = src[y + x];
+			if ((open & 1 << x) == 0 || v == 0 || (labels[v] != 0 ? labels[v] : b.next) != min)
+				continue;
+
+			boolean fresh = labels[v] == 0;
+			if (fresh)
+				labels[v] = b.next++;
+			b.cols[c] = x;
+			b.usedCols |= 1 << x;
+			if (stack < 0) {
+				b.stacks[c / 3] = x / 3;
+				b.usedStacks |= 1 << x / 3;
+			}
+			int before = found;
+			cells(b, src, y, c + 1, less);
+			if (stack < 0) {
+				b.stacks[c / 3] = -1;
+				b.usedStacks &= ~(1 << x / 3);
+			}
+			b.usedCols &= ~(1 << x);
+			b.cols[c] = -1;
+			if (fresh) {
+				labels[v] = 0;
+				b.next--;
+			}
+			if (found != before)
+				less = false;
+		}
+	}
+
+	/**
+	 * One way of writing the rows of the form placed so far: the source rows,
+	 * columns and stacks placed, and the labels given to the digits seen.
+	 *
+	 * @author Declan
+	 *
+	 */
+	private static class Branch {
+
+		/**
+		 * 1 if the branch reads the transposed grid, 0 if not
+		 */
+		final int t;
+
+		/**
+		 * The source row placed at every row of the form
+		 */
+		final int[] rows;
+
+		/**
+		 * The source column placed at every column of the form, or -1 if the
+		 * column has not been placed yet because every source column that
+		 * could go there has been blank in the rows placed so far, which
+		 * makes them interchangeable
+		 */
+		final int[] cols;
+
+		/**
+		 * The source stack placed at every stack of the form, or -1 if it has
+		 * not been placed yet
+		 */
+		final int[] stacks;
+
+		/**
+		 * The label of every source digit, or 0 if it has not appeared yet
+		 */
+		final int[] labels;
+
+		/**
+		 * The bitmasks of the source rows, columns and stacks placed
+		 */
+		int usedRows, usedCols, usedStacks;
+
+		/**
+		 * The next label to give a digit
+		 */
+		int next;
+
+		/**
+		 * Constructs and initializes a {@code Branch} that has placed nothing
+		 *
+		 * @param t
+		 *            1 if the branch reads the transposed grid, 0 if not
+		 */
+		Branch(int t) {
+			this.t = t;
+			rows = new int[9];
+			cols = new int[] { -1, -1, -1, -1, -1, -1, -1, -1, -1 };
+			stacks = new int[] { -1, -1, -1 };
+			labels = new int[10];
+			next = 1;
+		}
+
+		/**
+		 * Constructs and initializes an independent copy of a {@code Branch}
+		 *
+		 * @param b
+		 *            the {@code Branch} to copy
+		 */
+		Branch(Branch b) {
+			t = b.t;
+			rows = b.rows.clone();
+			cols = b.cols.clone();
+			stacks = b.stacks.clone();
+			labels = b.labels.clone();
+			usedRows = b.usedRows;
+			usedCols = b.usedCols;
+			usedStacks = b.usedStacks;
+			next = b.next;
+		}
+
+		/**
+		 * @return the {@code Transform} of a branch that has placed every
+		 *         row. The columns of the form still open are blank in every
+		 *         row, so they take the source columns left over in order, and
+		 *         the digits missing from the grid take the labels left over
+		 */
+		Transform toTransform() {
+			int[] c = new int[9];
+			int freeStacks = ~usedStacks & 7, freeCols = ~usedCols & 0x1FF;
+			for (int k = 0; k < 3; k++) {
+				int stack = stacks[k];
+				if (stack < 0) {
+					stack = Integer.numberOfTrailingZeros(freeStacks);
+					freeStacks &= freeStacks - 1;
+				}
+				for (int i = k * 3; i < k * 3 + 3; i++) {
+					c[i] = cols[i] >= 0 ? cols[i] : Integer.numberOfTrailingZeros(freeCols & 7 << stack * 3);
+					freeCols &= ~(1 << c[i]);
+				}
+			}
+
+			int[] l = labels.clone();
+			for (int v = 1, n = next; v <= 9; v++)
+				if (l[v] == 0)
+					l[v] = n++;
+			return new Transform(t == 1, rows.clone(), c, l);
+		}
+	}
+
+	/**
+	 * One symmetry of a regular Sudoku board: an optional transposition,
+	 * followed by a reordering of the rows and the columns that keeps every
+	 * band and stack together, and a relabelling of the digits.
+	 *
+	 * @author Declan
+	 *
+	 */
+	public static class Transform {
+
+		/**
+		 * Whether or not the grid is transposed before the rows and columns
+		 * are reordered
+		 */
+		private final boolean transposed;
+
+		/**
+		 * The row and column of the transposed or original grid that every
+		 * row and column of the result comes from
+		 */
+		private final int[] rows, cols;
+
+		/**
+		 * The new label of every digit, indexed by the digit, with 0 mapped to
+		 * 0
+		 */
+		private final int[] labels;
+
+		/**
+		 * Constructs and initializes a {@code Transform}
+		 */
+		Transform(boolean t, int[] r, int[] c, int[] l) {
+			transposed = t;
+			rows = r;
+			cols = c;
+			labels = l;
+		}
+
+		/**
+		 * @param r
+		 *            a row of the result
+		 * @param c
+		 *            a column of the result
+		 * @return the row-major index of the cell of the original grid that
+		 *         the cell of the result comes from
+		 */
+		private int source(int r, int c) {
+			return transposed ? cols[c] * 9 + rows[r] : rows[r] * 9 + cols[c];
+		}
+
+		/**
+		 * Applies this {@code Transform} to a grid, such as a puzzle or its
+		 * solution.
+		 *
+		 * @param grid
+		 *            the row-major grid of values to transform
+		 * @return a new row-major grid holding the transformed values
+		 */
+		public int[] apply(int[] grid) {
+			int[] out = new int[81];
+			for (int r = 0; r < 9; r++)
+				for (int c = 0; c < 9; c++)
+					out[r * 9 + c] = labels[grid[source(r, c)]];
+			return out;
+		}
+
+		/**
+		 * Undoes this {@code Transform} on a grid, so that a result worked out
+		 * for the canonical form, such as its solution, can be mapped back
+		 * onto the original puzzle.
+		 *
+		 * @param grid
+		 *            the row-major grid of transformed values
+		 * @return a new row-major grid holding the values in the original
+		 *         positions and digits
+		 */
+		public int[] invert(int[] grid) {
+			int[] digits = new int[10];
+			for (int v = 0; v < 10; v++)
+				digits[labels[v]] = v;
+			int[] out = new int[81];
+			for (int r = 0; r < 9; r++)
+				for (int c = 0; c < 9; c++)
+					out[source(r, c)] = digits[grid[r * 9 + c]];
+			return out;
+		}
+
+		/**
+		 * @return whether or not the grid is transposed before the rows and
+		 *         columns are reordered
+		 */
+		public boolean isTransposed() {
+			return transposed;
+		}
+
+		/**
+		 * @param d
+		 *            a digit from 0-9
+		 * @return the digit it is relabelled to, where 0 stays 0
+		 */
+		public int relabel(int d) {
+			return labels[d];
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder s = new StringBuilder(transposed ? "transpose, " : "");
+			s.append("rows ");
+			for (int r : rows)
+				s.append(r + 1);
+			s.append(", columns ");
+			for (int c : cols)
+				s.append(c + 1);
+			s.append(", digits ");
+			for (int v = 1; v <= 9; v++)
+				s.append(labels[v]);
+			return s.toString();
+		}
+	}
+
+	/**
+	 * The canonical form of a puzzle, together with the {@code Transform}
+	 * that maps the puzzle onto it.
+	 *
+	 * @author Declan
+	 *
+	 */
+	public static class Form {
+
+		/**
+		 * The row-major grid of the canonical form
+		 */
+		private final int[] grid;
+
+		/**
+		 * The {@code Transform} that maps the puzzle onto the canonical form
+		 */
+		private final Transform transform;
+
+		/**
+		 * Constructs and initializes a {@code Form}
+		 */
+		Form(int[] g, Transform t) {
+			grid = g;
+			transform = t;
+		}
+
+		/**
+		 * @return a copy of the row-major grid of the canonical form, with 0
+		 *         representing a blank cell
+		 */
+		public int[] getGrid() {
+			return grid.clone();
+		}
+
+		/**
+		 * @return the {@code Transform} that maps the puzzle onto the
+		 *         canonical form
+		 */
+		public Transform getTransform() {
+			return transform;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Form && Arrays.equals(grid, ((Form) o).grid);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(grid);
+		}
+
+		/**
+		 * @return the canonical form on one line in row-major order, with
+		 *         {@code .} for a blank cell, which is the same for every
+		 *         equivalent puzzle
+		 */
+		@Override
+		public String toString() {
+			char[] out = new char[81];
+			for (int i = 0; i < 81; i++)
+				out[i] = grid[i] == 0 ? '.' : (char) ('0' + grid[i]);
+			return new String(out);
+		}
+	}
+}
@@ -2,11 +2,16 @@ package game;
 
 import java.awt.Color;
 import java.awt.Point;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 /**
  * A cell construct that contain information about color, {@code int} content,
- * and location designated by a {@code Point}.
+ * and location designated by a {@code Point}. The {@code Cells} of a
+ * {@code SudokuGame} are views over its {@code Board}, which holds their
+ * content and whether or not they are editable; a {@code Cell} that is not
+ * part of a game keeps both itself.
  * 
  * @author Declan
  *
@@ -26,8 +31,10 @@ public class Cell implements Serializable {
 	private Color color;
 
 	/**
-	 * The {@code int} content of the cell. Value can range from 0-9, with 0
-	 * representing a blank cell.
+	 * The {@code int} content of the cell. Value can range from 0 to the side
+	 * length of the board, with 0 representing a blank cell. While the
+	 * {@code Cell} is attached to a {@code Board} this is only brought up to
+	 * date when the {@code Cell} is serialized.
 	 *
 	 * @serial
 	 * @see #getContent()
@@ -37,7 +44,8 @@ public class Cell implements Serializable {
 
 	/**
 	 * The {@code boolean} representation of whether or not the cell can be
-	 * edited.
+	 * edited. While the {@code Cell} is attached to a {@code Board} this is
+	 * only brought up to date when the {@code Cell} is serialized.
 	 *
 	 * @serial
 	 * @see #isEditable()
@@ -64,6 +72,17 @@ public class Cell implements Serializable {
 	 */
 	protected final Region[] regions = new Region[3];
 
+	/**
+	 * The {@code Board} that holds the content of this {@code Cell}, or null
+	 * if the {@code Cell} holds its own content
+	 */
+	private transient Board board;
+
+	/**
+	 * The row-major index of this {@code Cell} on its {@code Board}
+	 */
+	private transient int index;
+
 	/**
 	 * Constructs and initializes a {@code Cell} with the same location as the
 	 * specified {@code Point} object, and the same color as the specified
@@ -127,14 +146,14 @@ public class Cell implements Serializable {
 	 * @return the {@code int} content of the {@code Cell}
 	 */
 	public int getContent() {
-		return cellContent;
+		return board == null ? cellContent : board.get(index);
 	}
 
 	/**
 	 * @return {@code boolean} representing whether or not the cell is editable.
 	 */
 	public boolean isEditable() {
-		return editable;
+		return board == null ? editable : !board.isGiven(index);
 	}
 
 	/**
@@ -151,8 +170,12 @@ public class Cell implements Serializable {
 	 *            the {@code int} to set the content of the {@code Cell} to.
 	 */
 	public void setContent(int c) {
-		if (editable)
+		if (!isEditable())
+			return;
+		if (board == null)
 			this.cellContent = c;
+		else
+			board.set(index, c);
 	}
 
 	/**
@@ -161,7 +184,40 @@ public class Cell implements Serializable {
 	 *            {@code Cell} to.
 	 */
 	public void setEditable(boolean b) {
-		this.editable = b;
+		if (board == null)
+			this.editable = b;
+		else
+			board.setGiven(index, !b);
+	}
+
+	/**
+	 * Makes this {@code Cell} a view over one cell of a {@code Board}, moving
+	 * its current content and editability onto the {@code Board}.
+	 * 
+	 * @param b
+	 *            the {@code Board} to hold the content of this {@code Cell}
+	 * @param i
+	 *            the row-major index of this {@code Cell} on the
+	 *            {@code Board}
+	 */
+	void attach(Board b, int i) {
+		b.set(i, getContent());
+		b.setGiven(i, !isEditable());
+		board = b;
+		index = i;
+	}
+
+	/**
+	 * Brings the serialized content and editability up to date with the
+	 * {@code Board} before writing, so the serialized form is the same as
+	 * that of a {@code Cell} that holds its own content.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		if (board != null) {
+			cellContent = board.get(index);
+			editable = !board.isGiven(index);
+		}
+		out.defaultWriteObject();
 	}
 
 	/**
@@ -186,6 +242,6 @@ public class Cell implements Serializable {
 
 	@Override
 	public String toString() {
-		return "[" + point + ":" + color + ":" + cellContent + "]";
+		return "[" + point + ":" + color + ":" + getContent() + "]";
 	}
 }
@@ -0,0 +1,360 @@
+package game;
+
+/**
+ * An exact cover solver for Sudoku grids that uses Knuth's Algorithm X with
+ * the Dancing Links technique. The grid is translated into a constraint matrix
+ * with one column for every cell, every value in every row, every value in
+ * every column, and every value in every box, which makes 324 columns for a
+ * regular Sudoku board. Each possible placement of a value in a {@code Cell}
+ * is a row of the matrix that covers exactly four columns.
+ * <p>
+ * The links are stored in parallel {@code int} arrays rather than node
+ * objects, so building the matrix and searching it allocates nothing beyond
+ * the arrays created by the constructor.
+ *
+ * @author Declan
+ *
+ */
+class DancingLinks {
+
+	/**
+	 * The side length of the grid
+	 */
+	private final int size;
+
+	/**
+	 * The side length of one box of the grid
+	 */
+	private final int box;
+
+	/**
+	 * The grid that is being solved, stored row-major with 0 representing a
+	 * blank cell. Solutions are written into this array
+	 */
+	private final int[] grid;
+
+	/**
+	 * The left, right, up and down links of every node, where the nodes
+	 * {@code 0..columns} are the root and the column headers
+	 */
+	private final int[] left, right, up, down;
+
+	/**
+	 * The column header of every node
+	 */
+	private final int[] column;
+
+	/**
+	 * The number of nodes currently linked into each column
+	 */
+	private final int[] sizes;
+
+	/**
+	 * The matrix row each node belongs to, encoded as
+	 * {@code cell * size + value - 1}
+	 */
+	private final int[] row;
+
+	/**
+	 * The matrix rows chosen so far by the search, indexed by depth
+	 */
+	private final int[] chosen;
+
+	/**
+	 * Whether or not the givens of the grid could be placed without
+	 * conflicting with each other
+	 */
+	private final boolean consistent;
+
+	/**
+	 * The number of givens that were covered before the search started
+	 */
+	private int givens;
+
+	/**
+	 * The statistics to record every step of the search in, or null
+	 */
+	private SolveStatistics stats;
+
+	/**
+	 * Constructs and initializes the constraint matrix for the specified grid,
+	 * covering the columns of every value that is already filled in.
+	 *
+	 * @param g
+	 *            the row-major grid to solve, with 0 representing a blank
+	 *            cell. Solutions are written into this array
+	 * @throws IllegalArgumentException
+	 *             if the grid is not the size of a supported board
+	 */
+	DancingLinks(int[] g) {
+		Topology t = Topology.forCells(g.length);
+		grid = g;
+		size = t.size;
+		box = t.box;
+
+		int cells = size * size;
+		int columns = 4 * cells;
+		int nodes = columns + 1 + 4 * cells * size;
+
+		left = new int[nodes];
+		right = new int[nodes];
+		up = new int[nodes];
+		down = new int[nodes];
+		column = new int[nodes];
+		sizes = new int[columns + 1];
+		row = new int[nodes];
+		chosen = new int[cells];
+
+		for (int c = 0; c <= columns; c++) {
+			left[c] = c - 1;
+			right[c] = c + 1;
+			up[c] = c;
+			down[c] = c;
+			column[c] = c;
+		}
+		left[0] = columns;
+		right[columns] = 0;
+
+		int n = columns + 1;
+		for (int cell = 0; cell < cells; cell++) {
+			int y = cell / size, x = cell % size;
+			int b = (y / box) * box + x / box;
+			for (int v = 0; v < size; v++) {
+				int first = n;
+				n = addNode(n, first, 1 + cell, cell * size + v);
+				n = addNode(n, first, 1 + cells + y * size + v, cell * size + v);
+				n = addNode(n, first, 1 + 2 * cells + x * size + v, cell * size + v);
+				n = addNode(n, first, 1 + 3 * cells + b * size + v, cell * size + v);
+			}
+		}
+
+		consistent = coverGivens();
+	}
+
+	/**
+	 * Links a new node to the bottom of the specified column and to the end of
+	 * the matrix row that begins with the specified node.
+	 *
+	 * @return the index of the next free node
+	 */
+	private int addNode(int n, int first, int c, int r) {
+		column[n] = c;
+		row[n] = r;
+		sizes[c]++;
+
+		up[n] = up[c];
+		down[n] = c;
+		down[up[c]] = n;
+		up[c] = n;
+
+		if (n == first) {
+			left[n] = n;
+			right[n] = n;
+		} else {
+			left[n] = left[first];
+			right[n] = first;
+			right[left[first]] = n;
+			left[first] = n;
+		}
+		return n + 1;
+	}
+
+	/**
+	 * Selects the matrix row of every value already in the grid.
+	 *
+	 * @return whether or not the givens are free of conflicts
+	 */
+	private boolean coverGivens() {
+		int cells = size * size;
+		for (int cell = 0; cell < cells; cell++) {
+			int v = grid[cell];
+			if (v == 0)
+				continue;
+			if (v < 0 || v > size)
+				return false;
+
+			// The node of the cell column constraint for this row
+			int n = 1 + 4 * cells + 4 * (cell * size + v - 1);
+			for (int j = n; ; j = right[j]) {
+				if (!isLinked(column[j]))
+					return false;
+				if (right[j] == n)
+					break;
+			}
+
+			cover(column[n]);
+			for (int j = right[n]; j != n; j = right[j])
+				cover(column[j]);
+			givens++;
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether or not the column header is still linked into the
+	 *         header list
+	 */
+	private boolean isLinked(int c) {
+		return right[left[c]] == c;
+	}
+
+	/**
+	 * Removes a column from the header list, and every row that intersects it
+	 * from the other columns.
+	 */
+	private void cover(int c) {
+		right[left[c]] = right[c];
+		left[right[c]] = left[c];
+		for (int i = down[c]; i != c; i = down[i])
+			for (int j = right[i]; j != i; j = right[j]) {
+				down[up[j]] = down[j];
+				up[down[j]] = up[j];
+				sizes[column[j]]--;
+			}
+	}
+
+	/**
+	 * Restores a column covered by {@link #cover(int)}, in exactly the reverse
+	 * order.
+	 */
+	private void uncover(int c) {
+		for (int i = up[c]; i != c; i = up[i])
+			for (int j = left[i]; j != i; j = left[j]) {
+				sizes[column[j]]++;
+				down[up[j]] = j;
+				up[down[j]] = j;
+			}
+		right[left[c]] = c;
+		left[right[c]] = c;
+	}
+
+	/**
+	 * @return the uncovered column with the fewest remaining rows, or 0 if
+	 *         every column is covered
+	 */
+	private int chooseColumn() {
+		int best = 0;
+		int min = Integer.MAX_VALUE;
+		for (int c = right[0]; c != 0; c = right[c])
+			if (sizes[c] < min) {
+				min = sizes[c];
+				best = c;
+				if (min <= 1)
+					break;
+			}
+		return best;
+	}
+
+	/**
+	 * Records every step of the searches of this {@code DancingLinks} in a
+	 * {@code SolveStatistics}.
+	 *
+	 * @param st
+	 *            the {@code SolveStatistics} to record in, or null to record
+	 *            nothing
+	 */
+	void setStatistics(SolveStatistics st) {
+		stats = st;
+	}
+
+	/**
+	 * Searches for a solution and writes the first one found into the grid.
+	 * The grid is left untouched if there is no solution.
+	 *
+	 * @return whether or not the grid has a solution
+	 */
+	boolean solve() {
+		if (!consistent || !search(0))
+			return false;
+
+		for (int i = 0; i < size * size - givens; i++)
+			grid[chosen[i] / size] = chosen[i] % size + 1;
+		return true;
+	}
+
+	/**
+	 * The recursive step of {@link #solve()}.
+	 *
+	 * @param k
+	 *            the depth of the search
+	 * @return whether or not a solution was found
+	 */
+	private boolean search(int k) {
+		if (stats != null)
+			stats.visit();
+		int c = chooseColumn();
+		if (c == 0)
+			return true;
+
+		cover(c);
+		for (int r = down[c]; r != c; r = down[r]) {
+			chosen[k] = row[r];
+			for (int j = right[r]; j != r; j = right[j])
+				cover(column[j]);
+
+			if (stats != null)
+				stats.guess();
+			boolean found = search(k + 1);
+			if (stats != null)
+				stats.retract(!found);
+
+			for (int j = left[r]; j != r; j = left[j])
+				uncover(column[j]);
+			if (found) {
+				uncover(c);
+				return true;
+			}
+		}
+		uncover(c);
+		return false;
+	}
+
+	/**
+	 * Counts the solutions of the grid without changing it, stopping as soon
+	 * as the specified number of solutions has been found.
+	 *
+	 * @param limit
+	 *            the number of solutions to stop counting at
+	 * @return the number of solutions, or the limit if there are at least that
+	 *         many
+	 */
+	int count(int limit) {
+		return consistent && limit > 0 ? countAll(limit) : 0;
+	}
+
+	/**
+	 * The recursive step of {@link #count(int)}.
+	 *
+	 * @param limit
+	 *            the number of solutions to stop counting at, which is at
+	 *            least 1
+	 * @return the number of solutions below this point of the search, up to
+	 *         the limit
+	 */
+	private int countAll(int limit) {
+		if (stats != null)
+			stats.visit();
+		int c = chooseColumn();
+		if (c == 0)
+			return 1;
+		if (sizes[c] == 0)
+			return 0;
+
+		int sum = 0;
+		cover(c);
+		for (int r = down[c]; r != c && sum < limit; r = down[r]) {
+			for (int j = right[r]; j != r; j = right[j])
+				cover(column[j]);
+			if (stats != null)
+				stats.guess();
+			int n = countAll(limit - sum);
+			if (stats != null)
+				stats.retract(n == 0);
+			sum += n;
+			for (int j = left[r]; j != r; j = left[j])
+				uncover(column[j]);
+		}
+		uncover(c);
+		return sum;
+	}
+}
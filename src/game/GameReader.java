@@ -0,0 +1,254 @@
+package game;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * Reads the records of a save written by {@code GameWriter} from a channel,
+ * checking the header of the save first. The channel is read a buffer at a
+ * time, and {@code SudokuGames} are rebuilt straight from their values,
+ * givens and {@code Turns}.
+ *
+ * @author Declan
+ *
+ * @see GameWriter
+ */
+public final class GameReader {
+
+	/**
+	 * The channel the save is read from
+	 */
+	private final ReadableByteChannel channel;
+
+	/**
+	 * The bytes that have been read from the channel but not used yet
+	 */
+	private final ByteBuffer buffer = ByteBuffer.allocate(GameWriter.BUFFER_SIZE);
+
+	/**
+	 * The number of records in the save
+	 */
+	private final int count;
+
+	/**
+	 * Constructs and initializes a {@code GameReader} and reads the header of
+	 * the save.
+	 *
+	 * @param ch
+	 *            the channel to read the save from, which is left open
+	 * @throws IOException
+	 *             if the channel cannot be read from, it does not hold a save
+	 *             in the binary format, or the save was written by a newer
+	 *             version of the format
+	 */
+	public GameReader(ReadableByteChannel ch) throws IOException {
+		channel = ch;
+		buffer.flip();
+		need(10);
+		if (buffer.getInt() != GameWriter.MAGIC)
+			throw new StreamCorruptedException("Not a saved game");
+		int version = buffer.getShort();
+		if (version < 1 || version > GameWriter.VERSION)
+			throw new StreamCorruptedException("Unsupported save format version " + version);
+		count = buffer.getInt();
+		if (count < 0)
+			throw new StreamCorruptedException("Invalid record count " + count);
+	}
+
+	/**
+	 * Checks whether or not a file holds a save in the binary format, rather
+	 * than one made with Java serialization, without moving the position of
+	 * the channel.
+	 *
+	 * @param ch
+	 *            the channel of the file, positioned at its start
+	 * @return whether or not the file starts with the magic number of the
+	 *         binary format
+	 * @throws IOException
+	 *             if the channel cannot be read from
+	 */
+	public static boolean isGameFile(FileChannel ch) throws IOException {
+		ByteBuffer head = ByteBuffer.allocate(4);
+		long position = ch.position();
+		while (head.hasRemaining())
+			if (ch.read(head, position + head.position()) < 0)
+				return false;
+		head.flip();
+		return head.getInt() == GameWriter.MAGIC;
+	}
+
+	/**
+	 * @return the number of records in the save
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Reads the next record of the save.
+	 *
+	 * @return the {@code SudokuGame} or other object the record holds
+	 * @throws IOException
+	 *             if the channel cannot be read from, ends early, or holds a
+	 *             record that is not valid
+	 * @throws ClassNotFoundException
+	 *             if a record holds a Java serialized object whose class
+	 *             cannot be found
+	 */
+	public Object read() throws IOException, ClassNotFoundException {
+		need(1);
+		int kind = buffer.get();
+		if (kind == GameWriter.GAME)
+			return readGame();
+		else if (kind == GameWriter.SERIALIZED) {
+			ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(readBytes()));
+			Object o = ois.readObject();
+			ois.close();
+			return o;
+		}
+		throw new StreamCorruptedException("Unknown record kind " + kind);
+	}
+
+	/**
+	 * Reads a {@code SudokuGame} in the binary format
+	 */
+	private SudokuGame readGame() throws IOException {
+		String name = readString(), save = readString();
+		need(13);
+		int size = buffer.get() & 0xFF;
+		if (!SudokuGame.isValidSize(size))
+			throw new StreamCorruptedException("Invalid board size " + size);
+		Color[] colors = new Color[3];
+		for (int k = 0; k < colors.length; k++)
+			colors[k] = new Color(buffer.getInt(), true);
+
+		SudokuGame g = new SudokuGame(name, size);
+		if (save != null)
+			g.setSave(new File(save));
+		g.setColors(colors[0], colors[1], colors[2]);
+
+		int cells = size * size;
+		if (size <= GameWriter.MAX_NIBBLE_SIZE)
+			for (int i = 0; i < cells; i += 2) {
+				need(1);
+				int packed = buffer.get() & 0xFF;
+				setValue(g, i, packed >>> 4);
+				if (i + 1 < cells)
+					setValue(g, i + 1, packed & 0xF);
+			}
+		else
+			for (int i = 0; i < cells; i++) {
+				need(1);
+				setValue(g, i, buffer.get() & 0xFF);
+			}
+
+		for (int i = 0; i < cells; i += 8) {
+			need(1);
+			int bits = buffer.get() & 0xFF;
+			for (int k = 0; k < 8 && i + k < cells; k++)
+				if ((bits & 1 << k) != 0)
+					g.get((i + k) / size, (i + k) % size).setEditable(false);
+		}
+
+		readTurns(g, g.history);
+		readTurns(g, g.future);
+		return g;
+	}
+
+	/**
+	 * Sets the value of one {@code Cell} of a {@code SudokuGame} that is being
+	 * read, before any of its givens are set
+	 */
+	private static void setValue(SudokuGame g, int i, int v) throws IOException {
+		int size = g.getSize();
+		if (v > size)
+			throw new StreamCorruptedException("Invalid value " + v);
+		if (v != 0)
+			g.set(i / size, i % size, v);
+	}
+
+	/**
+	 * Reads a stack of {@code Turns} written from the top down, and adds them
+	 * to the bottom of a stack of the {@code SudokuGame} in the same order
+	 */
+	private void readTurns(SudokuGame g, ArrayDeque<Turn> turns) throws IOException {
+		need(4);
+		int n = buffer.getInt();
+		if (n < 0)
+			throw new StreamCorruptedException("Invalid number of turns " + n);
+		int size = g.getSize();
+		for (int k = 0; k < n; k++) {
+			need(3);
+			int packed = (buffer.get() & 0xFF) << 16 | buffer.getShort() & 0xFFFF;
+			int i = packed >>> 10, prev = packed >>> 5 & 0x1F, post = packed & 0x1F;
+			if (i >= size * size || prev > size || post > size)
+				throw new StreamCorruptedException("Invalid turn " + Integer.toHexString(packed));
+			turns.addLast(new Turn(g.get(i / size, i % size), prev, post));
+		}
+	}
+
+	/**
+	 * Reads a {@code String} written as its length in bytes followed by its
+	 * UTF-8 bytes, or null if its length is -1
+	 */
+	private String readString() throws IOException {
+		need(4);
+		int n = buffer.getInt();
+		if (n == -1)
+			return null;
+		return new String(readBytes(n), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads an array of bytes written as its length followed by the bytes
+	 */
+	private byte[] readBytes() throws IOException {
+		need(4);
+		return readBytes(buffer.getInt());
+	}
+
+	/**
+	 * Reads a number of bytes, which may not all fit in the buffer at once
+	 */
+	private byte[] readBytes(int n) throws IOException {
+		if (n < 0)
+			throw new StreamCorruptedException("Invalid length " + n);
+		byte[] bytes = new byte[n];
+		for (int off = 0; off < n;) {
+			need(1);
+			int m = Math.min(buffer.remaining(), n - off);
+			buffer.get(bytes, off, m);
+			off += m;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Makes sure the buffer holds at least a number of bytes, reading more
+	 * from the channel if it does not
+	 *
+	 * @throws EOFException
+	 *             if the channel ends first
+	 */
+	private void need(int n) throws IOException {
+		if (buffer.remaining() >= n)
+			return;
+		buffer.compact();
+		while (buffer.position() < n)
+			if (channel.read(buffer) < 0) {
+				buffer.flip();
+				throw new EOFException("The save ended early");
+			}
+		buffer.flip();
+	}
+}
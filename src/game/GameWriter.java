@@ -0,0 +1,233 @@
+package game;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Writes {@code SudokuGames} to a channel in the binary save format, which
+ * {@code GameReader} reads back. A save starts with a header of the magic
+ * number, the version of the format and the number of records, followed by
+ * the records themselves. A {@code SudokuGame} is saved as its name, its save
+ * location, its size, its color scheme, the values of its {@code Cells}
+ * packed two to a byte (or one to a byte on boards too large for values to
+ * fit in half a byte), a bitmask of its givens, and its history and undone
+ * {@code Turns} as packed (cell, previous value, value) triples. Nothing that
+ * can be worked out from those, such as the {@code Colors} of the
+ * {@code Cells} or the {@code Regions}, is saved.
+ * <p>
+ * Anything else is saved as a record of its Java serialized form, so that
+ * every {@code SudokuSerializable} can still be saved.
+ * <p>
+ * Records are collected in a buffer and written to the channel whenever it
+ * fills, so the channel is not wrapped in a stream. All numbers are big
+ * endian.
+ *
+ * @author Declan
+ *
+ * @see GameReader
+ */
+public final class GameWriter {
+
+	/**
+	 * The first four bytes of every save, which are "SDKU" in ASCII. Saves made
+	 * with Java serialization start with 0xACED instead
+	 */
+	static final int MAGIC = 0x53444B55;
+
+	/**
+	 * The version of the format that is written, which is raised whenever the
+	 * format changes
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * The kind of record holding a {@code SudokuGame}
+	 */
+	static final int GAME = 0;
+
+	/**
+	 * The kind of record holding the Java serialized form of an object
+	 */
+	static final int SERIALIZED = 1;
+
+	/**
+	 * The number of bytes collected before they are written to the channel
+	 */
+	static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The largest size of board whose values fit in half a byte
+	 */
+	static final int MAX_NIBBLE_SIZE = 15;
+
+	/**
+	 * The channel the save is written to
+	 */
+	private final WritableByteChannel channel;
+
+	/**
+	 * The bytes that have not been written to the channel yet
+	 */
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+	/**
+	 * Constructs and initializes a {@code GameWriter} and writes the header of
+	 * the save.
+	 *
+	 * @param ch
+	 *            the channel to write the save to, which is left open
+	 * @param n
+	 *            the number of records that will be written
+	 * @throws IOException
+	 *             if the channel cannot be written to
+	 */
+	public GameWriter(WritableByteChannel ch, int n) throws IOException {
+		channel = ch;
+		need(10);
+		buffer.putInt(MAGIC);
+		buffer.putShort((short) VERSION);
+		buffer.putInt(n);
+	}
+
+	/**
+	 * Writes one record of the save. {@code SudokuGames} are written in the
+	 * binary format, and anything else in its Java serialized form.
+	 *
+	 * @param o
+	 *            the object to write
+	 * @throws IOException
+	 *             if the channel cannot be written to, or the object cannot
+	 *             be serialized
+	 */
+	public void write(Serializable o) throws IOException {
+		if (o instanceof SudokuGame) {
+			need(1);
+			buffer.put((byte) GAME);
+			write((SudokuGame) o);
+		} else {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream oos = new ObjectOutputStream(bytes);
+			oos.writeObject(o);
+			oos.close();
+			need(1);
+			buffer.put((byte) SERIALIZED);
+			writeBytes(bytes.toByteArray());
+		}
+	}
+
+	/**
+	 * Writes a {@code SudokuGame} in the binary format
+	 */
+	private void write(SudokuGame g) throws IOException {
+		writeString(g.getName());
+		writeString(g.isSaved() ? g.getSave().getPath() : null);
+
+		int size = g.getSize(), cells = size * size;
+		Color[] colors = g.getColors();
+		need(1 + 4 * colors.length);
+		buffer.put((byte) size);
+		for (Color c : colors)
+			buffer.putInt(c.getRGB());
+
+		Board b = g.board;
+		if (size <= MAX_NIBBLE_SIZE)
+			for (int i = 0; i < cells; i += 2) {
+				need(1);
+				int high = b.get(i), low = i + 1 < cells ? b.get(i + 1) : 0;
+				buffer.put((byte) (high << 4 | low));
+			}
+		else
+			for (int i = 0; i < cells; i++) {
+				need(1);
+				buffer.put((byte) b.get(i));
+			}
+
+		for (int i = 0; i < cells; i += 8) {
+			int bits = 0;
+			for (int k = 0; k < 8 && i + k < cells; k++)
+				if (b.isGiven(i + k))
+					bits |= 1 << k;
+			need(1);
+			buffer.put((byte) bits);
+		}
+
+		writeTurns(g, g.history.size(), g.history.iterator());
+		writeTurns(g, g.future.size(), g.future.iterator());
+	}
+
+	/**
+	 * Writes a stack of {@code Turns} from the top down, each as the
+	 * row-major index of its {@code Cell} in ten bits followed by its
+	 * previous value and its value in five bits each, packed into three bytes
+	 */
+	private void writeTurns(SudokuGame g, int n, Iterator<Turn> turns) throws IOException {
+		need(4);
+		buffer.putInt(n);
+		while (turns.hasNext()) {
+			Turn t = turns.next();
+			Point p = t.getCell().getPoint();
+			int packed = g.board.index(p.y, p.x) << 10 | t.getPrevValue() << 5 | t.getPostValue();
+			need(3);
+			buffer.put((byte) (packed >>> 16));
+			buffer.putShort((short) packed);
+		}
+	}
+
+	/**
+	 * Writes a {@code String} as its length in bytes followed by its UTF-8
+	 * bytes, or a length of -1 if it is null
+	 */
+	private void writeString(String s) throws IOException {
+		if (s == null) {
+			need(4);
+			buffer.putInt(-1);
+		} else
+			writeBytes(s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Writes an array of bytes as its length followed by the bytes, which may
+	 * not all fit in the buffer at once
+	 */
+	private void writeBytes(byte[] bytes) throws IOException {
+		need(4);
+		buffer.putInt(bytes.length);
+		for (int off = 0; off < bytes.length;) {
+			need(1);
+			int n = Math.min(buffer.remaining(), bytes.length - off);
+			buffer.put(bytes, off, n);
+			off += n;
+		}
+	}
+
+	/**
+	 * Makes room in the buffer for a number of bytes, writing what it holds
+	 * to the channel if there is not enough
+	 */
+	private void need(int n) throws IOException {
+		if (buffer.remaining() < n)
+			flush();
+	}
+
+	/**
+	 * Writes every byte that is still in the buffer to the channel, which has
+	 * to be done once the last record has been written
+	 *
+	 * @throws IOException
+	 *             if the channel cannot be written to
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+}
@@ -0,0 +1,756 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A solver that only uses the {@code Techniques} a person would, and rates the
+ * difficulty of a puzzle by the techniques it needed. At every step the
+ * easiest technique that makes progress is applied, and the solver starts
+ * again from the easiest technique, so the steps recorded are the ones a
+ * person working through the puzzle would most likely take.
+ * <p>
+ * The candidates of every {@code Cell} are kept as bitmasks in the format of
+ * {@link Candidates}, calculated once from the givens and then only narrowed
+ * as values are placed and techniques eliminate candidates. The rows, columns
+ * and boxes are searched in the same order as the {@code Regions} of a
+ * {@code SudokuGame}. Only regular 9x9 boards can be rated.
+ *
+ * @author Declan
+ *
+ */
+public class LogicalSolver {
+
+	/**
+	 * The row, column and box index of every cell of a regular board
+	 */
+	private static final int[] ROW = Topology.of(9).row, COL = Topology.of(9).col, BOX = Topology.of(9).boxOf;
+
+	/**
+	 * The 20 distinct cells that share a row, column or box with every cell
+	 */
+	private static final int[][] PEERS = Topology.of(9).peers;
+
+	/**
+	 * The cells of every row, column and box, in the same order as the
+	 * {@code Regions} of a {@code SudokuGame}
+	 */
+	private static final int[][] UNITS = Topology.of(9).units;
+
+	/**
+	 * The value of every cell, stored row-major with 0 representing a blank
+	 * cell
+	 */
+	private final int[] values = new int[81];
+
+	/**
+	 * The candidate mask of every blank cell, and 0 for every filled cell
+	 */
+	private final int[] candidates = new int[81];
+
+	/**
+	 * The number of blank cells
+	 */
+	private int blanks;
+
+	/**
+	 * Whether or not a blank cell has run out of candidates, which means the
+	 * puzzle has no solution
+	 */
+	private boolean broken;
+
+	/**
+	 * The steps taken so far, in order
+	 */
+	private final List<Step> steps = new ArrayList<Step>();
+
+	/**
+	 * The sum of the weights of the steps taken so far
+	 */
+	private int score;
+
+	/**
+	 * The hardest {@code Technique} used so far, or null if no step has been
+	 * taken
+	 */
+	private Technique hardest;
+
+	/**
+	 * Constructs and initializes a {@code LogicalSolver} for a row-major grid
+	 * of values.
+	 *
+	 * @param grid
+	 *            the row-major grid of values, with 0 representing a blank
+	 *            cell
+	 */
+	private LogicalSolver(int[] grid) {
+		if (grid.length != 81)
+			throw new IllegalArgumentException("Expected 81 cells but got " + grid.length);
+
+		int[] rows = new int[9], cols = new int[9], boxes = new int[9];
+		for (int i = 0; i < 81; i++) {
+			int v = grid[i];
+			if (v < 0 || v > 9)
+				throw new IllegalArgumentException("Invalid value " + v + " at cell " + i);
+			values[i] = v;
+			if (v == 0) {
+				blanks++;
+				continue;
+			}
+			int bit = Candidates.of(v);
+			if (((rows[ROW[i]] | cols[COL[i]] | boxes[BOX[i]]) & bit) != 0)
+				broken = true;
+			rows[ROW[i]] |= bit;
+			cols[COL[i]] |= bit;
+			boxes[BOX[i]] |= bit;
+		}
+		for (int i = 0; i < 81; i++)
+			if (values[i] == 0) {
+				candidates[i] = Candidates.ALL & ~(rows[ROW[i]] | cols[COL[i]] | boxes[BOX[i]]);
+				if (candidates[i] == 0)
+					broken = true;
+			}
+	}
+
+	/**
+	 * Solves a {@code SudokuGame} as far as the known {@code Techniques}
+	 * allow, without changing it, and rates its difficulty.
+	 *
+	 * @param g
+	 *            the {@code SudokuGame} to rate
+	 * @return the {@code Rating} of the game
+	 */
+	public static Rating rate(SudokuGame g) {
+		return rate(SudokuSolverToolkit.toGrid(g));
+	}
+
+	/**
+	 * Solves a row-major grid as far as the known {@code Techniques} allow,
+	 * without changing it, and rates its difficulty.
+	 *
+	 * @param grid
+	 *            the row-major grid of values, with 0 representing a blank
+	 *            cell
+	 * @return the {@code Rating} of the grid
+	 * @throws IllegalArgumentException
+	 *             if the grid does not have 81 cells or holds a value outside
+	 *             0-9
+	 */
+	public static Rating rate(int[] grid) {
+		LogicalSolver s = new LogicalSolver(grid);
+		s.run();
+		return new Rating(s.values.clone(), s.blanks == 0 && !s.broken, s.score, s.hardest,
+				Collections.unmodifiableList(s.steps));
+	}
+
+	/**
+	 * Applies the easiest {@code Technique} that makes progress, over and over,
+	 * until the grid is solved, broken, or no technique applies.
+	 */
+	private void run() {
+		while (blanks > 0 && !broken) {
+			if (hiddenSingles() || nakedSingles() || pointing() || boxLineReduction())
+				continue;
+			if (nakedSubset(2, Technique.NAKED_PAIR) || hiddenSubset(2, Technique.HIDDEN_PAIR))
+				continue;
+			if (nakedSubset(3, Technique.NAKED_TRIPLE) || hiddenSubset(3, Technique.HIDDEN_TRIPLE))
+				continue;
+			if (fish(2, Technique.X_WING) || xyWing() || fish(3, Technique.SWORDFISH))
+				continue;
+			break;
+		}
+	}
+
+	/**
+	 * Places a value in a blank cell and removes it from the candidates of
+	 * every peer.
+	 */
+	private void place(int i, int v) {
+		int bit = Candidates.of(v);
+		values[i] = v;
+		candidates[i] = 0;
+		blanks--;
+		for (int p : PEERS[i])
+			if ((candidates[p] & bit) != 0 && (candidates[p] &= ~bit) == 0)
+				broken = true;
+	}
+
+	/**
+	 * Removes candidates from a blank cell.
+	 *
+	 * @return the number of candidates removed
+	 */
+	private int eliminate(int i, int mask) {
+		int removed = Candidates.count(candidates[i] & mask);
+		if (removed != 0 && (candidates[i] &= ~mask) == 0)
+			broken = true;
+		return removed;
+	}
+
+	/**
+	 * Records a step and adds its weight to the score.
+	 */
+	private void record(Technique t, int[] cells, int digits, int removed) {
+		steps.add(new Step(t, cells, digits, removed));
+		score += t.getWeight();
+		if (hardest == null || t.compareTo(hardest) > 0)
+			hardest = t;
+	}
+
+	/**
+	 * @return the next larger bitmask with the same number of bits set
+	 */
+	private static int nextSubset(int s) {
+		int c = s & -s;
+		int r = s + c;
+		return (((r ^ s) >>> 2) / c) | r;
+	}
+
+	/**
+	 * @return whether or not two distinct cells share a row, column or box
+	 */
+	private static boolean sees(int a, int b) {
+		return a != b && (ROW[a] == ROW[b] || COL[a] == COL[b] || BOX[a] == BOX[b]);
+	}
+
+	/**
+	 * Places every value that has only one blank cell left in a row, column or
+	 * box. The grid is marked as broken if a value has no place left.
+	 *
+	 * @return whether or not any value was placed, or the grid is broken
+	 */
+	private boolean hiddenSingles() {
+		boolean found = false;
+		for (int[] unit : UNITS) {
+			int used = 0, once = 0, twice = 0;
+			for (int i : unit) {
+				used |= Candidates.of(values[i]);
+				twice |= once & candidates[i];
+				once |= candidates[i];
+			}
+			if ((used | once) != Candidates.ALL) {
+				broken = true;
+				return true;
+			}
+			int singles = once & ~twice;
+			for (int v = Candidates.first(singles); v != 0; v = Candidates.next(singles, v))
+				for (int i : unit)
+					if (Candidates.contains(candidates[i], v)) {
+						place(i, v);
+						record(Technique.HIDDEN_SINGLE, new int[] { i }, Candidates.of(v), 0);
+						found = true;
+						break;
+					}
+			if (broken)
+				return true;
+		}
+		return found;
+	}
+
+	/**
+	 * Places the only candidate of every blank cell that has one.
+	 *
+	 * @return whether or not any value was placed
+	 */
+	private boolean nakedSingles() {
+		boolean found = false;
+		for (int i = 0; i < 81 && !broken; i++)
+			if (values[i] == 0 && Candidates.count(candidates[i]) == 1) {
+				int bit = candidates[i];
+				place(i, Candidates.first(bit));
+				record(Technique.NAKED_SINGLE, new int[] { i }, bit, 0);
+				found = true;
+			}
+		return found;
+	}
+
+	/**
+	 * @return the cells of a unit that have the value as a candidate
+	 */
+	private int[] cellsWith(int[] unit, int bit) {
+		int n = 0;
+		for (int i : unit)
+			if ((candidates[i] & bit) != 0)
+				n++;
+		int[] cells = new int[n];
+		n = 0;
+		for (int i : unit)
+			if ((candidates[i] & bit) != 0)
+				cells[n++] = i;
+		return cells;
+	}
+
+	/**
+	 * Removes a value from the rest of a row or column when all of its
+	 * candidates in a box lie in that row or column.
+	 *
+	 * @return whether or not any candidate was removed
+	 */
+	private boolean pointing() {
+		for (int b = 0; b < 9; b++) {
+			int[] box = UNITS[18 + b];
+			for (int v = 1; v <= 9; v++) {
+				int bit = Candidates.of(v);
+				int rows = 0, cols = 0;
+				for (int i : box)
+					if ((candidates[i] & bit) != 0) {
+						rows |= 1 << ROW[i];
+						cols |= 1 << COL[i];
+					}
+				int line;
+				if (Integer.bitCount(rows) == 1)
+					line = Integer.numberOfTrailingZeros(rows);
+				else if (Integer.bitCount(cols) == 1)
+					line = 9 + Integer.numberOfTrailingZeros(cols);
+				else
+					continue;
+
+				int removed = 0;
+				for (int i : UNITS[line])
+					if (BOX[i] != b)
+						removed += eliminate(i, bit);
+				if (removed > 0) {
+					record(Technique.POINTING, cellsWith(box, bit), bit, removed);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes a value from the rest of a box when all of its candidates in a
+	 * row or column lie in that box.
+	 *
+	 * @return whether or not any candidate was removed
+	 */
+	private boolean boxLineReduction() {
+		for (int u = 0; u < 18; u++) {
+			int[] line = UNITS[u];
+			for (int v = 1; v <= 9; v++) {
+				int bit = Candidates.of(v);
+				int boxes = 0;
+				for (int i : line)
+					if ((candidates[i] & bit) != 0)
+						boxes |= 1 << BOX[i];
+				if (Integer.bitCount(boxes) != 1)
+					continue;
+
+				int removed = 0;
+				for (int i : UNITS[18 + Integer.numberOfTrailingZeros(boxes)])
+					if ((u < 9 ? ROW[i] : 9 + COL[i]) != u)
+						removed += eliminate(i, bit);
+				if (removed > 0) {
+					record(Technique.BOX_LINE_REDUCTION, cellsWith(line, bit), bit, removed);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds k blank cells of a region whose candidates together are only k
+	 * values, and removes those values from the rest of the region.
+	 *
+	 * @return whether or not any candidate was removed
+	 */
+	private boolean nakedSubset(int k, Technique t) {
+		int[] cells = new int[9];
+		for (int[] unit : UNITS) {
+			int n = 0;
+			for (int i : unit)
+				if (values[i] == 0)
+					cells[n++] = i;
+			if (n <= k)
+				continue;
+
+			for (int s = (1 << k) - 1; s < 1 << n; s = nextSubset(s)) {
+				int union = 0;
+				for (int j = 0; j < n; j++)
+					if ((s & 1 << j) != 0)
+						union |= candidates[cells[j]];
+				if (Candidates.count(union) != k)
+					continue;
+
+				int removed = 0;
+				for (int j = 0; j < n; j++)
+					if ((s & 1 << j) == 0)
+						removed += eliminate(cells[j], union);
+				if (removed > 0) {
+					record(t, select(cells, s, k), union, removed);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds k values that are only candidates in the same k blank cells of a
+	 * region, and removes every other candidate from those cells.
+	 *
+	 * @return whether or not any candidate was removed
+	 */
+	private boolean hiddenSubset(int k, Technique t) {
+		int[] cells = new int[9];
+		int[] positions = new int[9], digits = new int[9];
+		for (int[] unit : UNITS) {
+			int n = 0;
+			for (int i : unit)
+				if (values[i] == 0)
+					cells[n++] = i;
+			int m = 0;
+			for (int v = 1; v <= 9; v++) {
+				int bit = Candidates.of(v), p = 0;
+				for (int j = 0; j < n; j++)
+					if ((candidates[cells[j]] & bit) != 0)
+						p |= 1 << j;
+				if (p != 0) {
+					positions[m] = p;
+					digits[m++] = bit;
+				}
+			}
+			if (m <= k)
+				continue;
+
+			for (int s = (1 << k) - 1; s < 1 << m; s = nextSubset(s)) {
+				int union = 0, mask = 0;
+				for (int d = 0; d < m; d++)
+					if ((s & 1 << d) != 0) {
+						union |= positions[d];
+						mask |= digits[d];
+					}
+				if (Integer.bitCount(union) != k)
+					continue;
+
+				int removed = 0;
+				for (int j = 0; j < n; j++)
+					if ((union & 1 << j) != 0)
+						removed += eliminate(cells[j], Candidates.ALL & ~mask);
+				if (removed > 0) {
+					record(t, select(cells, union, k), mask, removed);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the k elements of an array whose indices are set in a bitmask
+	 */
+	private static int[] select(int[] a, int s, int k) {
+		int[] out = new int[k];
+		int n = 0;
+		for (int j = 0; s != 0; j++, s >>>= 1)
+			if ((s & 1) != 0)
+				out[n++] = a[j];
+		return out;
+	}
+
+	/**
+	 * Finds k rows whose candidates for a value all lie in the same k
+	 * columns, and removes the value from the rest of those columns, or the
+	 * same with rows and columns swapped. This is an X-Wing when k is 2 and a
+	 * Swordfish when k is 3.
+	 *
+	 * @return whether or not any candidate was removed
+	 */
+	private boolean fish(int k, Technique t) {
+		int[] lines = new int[9], crosses = new int[9];
+		for (int v = 1; v <= 9; v++) {
+			int bit = Candidates.of(v);
+			for (int base = 0; base < 2; base++) {
+				int m = 0;
+				for (int l = 0; l < 9; l++) {
+					int cross = 0;
+					for (int i : UNITS[base * 9 + l])
+						if ((candidates[i] & bit) != 0)
+							cross |= 1 << (base == 0 ? COL[i] : ROW[i]);
+					int c = Integer.bitCount(cross);
+					if (c >= 2 && c <= k) {
+						lines[m] = l;
+						crosses[m++] = cross;
+					}
+				}
+				if (m < k)
+					continue;
+
+				for (int s = (1 << k) - 1; s < 1 << m; s = nextSubset(s)) {
+					int union = 0, chosen = 0;
+					for (int j = 0; j < m; j++)
+						if ((s & 1 << j) != 0) {
+							union |= crosses[j];
+							chosen |= 1 << lines[j];
+						}
+					if (Integer.bitCount(union) != k)
+						continue;
+
+					int removed = 0;
+					for (int c = 0; c < 9; c++)
+						if ((union & 1 << c) != 0)
+							for (int i : UNITS[(1 - base) * 9 + c])
+								if ((chosen & 1 << (base == 0 ? ROW[i] : COL[i])) == 0)
+									removed += eliminate(i, bit);
+					if (removed > 0) {
+						int[] cells = new int[0];
+						for (int j = 0; j < m; j++)
+							if ((s & 1 << j) != 0)
+								cells = concat(cells, cellsWith(UNITS[base * 9 + lines[j]], bit));
+						record(t, cells, bit, removed);
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return a new array holding the elements of both arrays
+	 */
+	private static int[] concat(int[] a, int[] b) {
+		int[] out = new int[a.length + b.length];
+		System.arraycopy(a, 0, out, 0, a.length);
+		System.arraycopy(b, 0, out, a.length, b.length);
+		return out;
+	}
+
+	/**
+	 * Finds a pivot cell with the candidates xy that sees a cell with the
+	 * candidates xz and another with yz, and removes z from every cell that
+	 * sees both of them.
+	 *
+	 * @return whether or not any candidate was removed
+	 */
+	private boolean xyWing() {
+		for (int p = 0; p < 81; p++) {
+			int xy = candidates[p];
+			if (Candidates.count(xy) != 2)
+				continue;
+			for (int a : PEERS[p]) {
+				int xz = candidates[a];
+				if (Candidates.count(xz) != 2 || Candidates.count(xz & xy) != 1)
+					continue;
+				int z = xz & ~xy;
+				int yz = (xy & ~xz) | z;
+				for (int b : PEERS[p]) {
+					if (candidates[b] != yz)
+						continue;
+
+					int removed = 0;
+					for (int i : PEERS[a])
+						if (sees(i, b))
+							removed += eliminate(i, z);
+					if (removed > 0) {
+						record(Technique.XY_WING, new int[] { p, a, b }, z, removed);
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the name of a cell in the form r1c1, numbering rows and columns
+	 *         from 1
+	 */
+	private static String name(int i) {
+		return "r" + (ROW[i] + 1) + "c" + (COL[i] + 1);
+	}
+
+	/**
+	 * One application of a {@code Technique}: the cells that make up the
+	 * pattern, the values involved, and how many candidates it removed.
+	 *
+	 * @author Declan
+	 *
+	 */
+	public static class Step {
+
+		/**
+		 * The {@code Technique} that was applied
+		 */
+		private final Technique technique;
+
+		/**
+		 * The row-major indices of the cells that make up the pattern
+		 */
+		private final int[] cells;
+
+		/**
+		 * The candidate mask of the values involved
+		 */
+		private final int digits;
+
+		/**
+		 * The number of candidates removed, or 0 if a value was placed
+		 */
+		private final int removed;
+
+		/**
+		 * Constructs and initializes a {@code Step}
+		 *
+		 * @param t
+		 *            the {@code Technique} that was applied
+		 * @param c
+		 *            the row-major indices of the cells of the pattern
+		 * @param d
+		 *            the candidate mask of the values involved
+		 * @param r
+		 *            the number of candidates removed
+		 */
+		Step(Technique t, int[] c, int d, int r) {
+			technique = t;
+			cells = c;
+			digits = d;
+			removed = r;
+		}
+
+		/**
+		 * @return the {@code Technique} that was applied
+		 */
+		public Technique getTechnique() {
+			return technique;
+		}
+
+		/**
+		 * @return the row-major indices of the cells that make up the pattern.
+		 *         For a single this is the cell that was filled
+		 */
+		public int[] getCells() {
+			return cells.clone();
+		}
+
+		/**
+		 * @return the candidate mask of the values involved. For a single
+		 *         this is the value that was placed, and for an XY-Wing the
+		 *         value that was removed
+		 */
+		public int getDigits() {
+			return digits;
+		}
+
+		/**
+		 * @return the number of candidates removed, or 0 if a value was placed
+		 */
+		public int getRemoved() {
+			return removed;
+		}
+
+		/**
+		 * @return whether or not the step placed a value rather than removing
+		 *         candidates
+		 */
+		public boolean isPlacement() {
+			return technique == Technique.HIDDEN_SINGLE || technique == Technique.NAKED_SINGLE;
+		}
+
+		@Override
+		public String toString() {
+			if (isPlacement())
+				return technique + ": " + name(cells[0]) + " = " + Candidates.first(digits);
+
+			StringBuilder sb = new StringBuilder();
+			sb.append(technique).append(' ').append(Candidates.toString(digits)).append(" in ");
+			for (int j = 0; j < cells.length; j++)
+				sb.append(j == 0 ? "" : ", ").append(name(cells[j]));
+			sb.append(" (").append(removed).append(removed == 1 ? " candidate" : " candidates").append(" removed)");
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * The outcome of rating a puzzle with the {@code LogicalSolver}.
+	 *
+	 * @author Declan
+	 *
+	 */
+	public static class Rating {
+
+		/**
+		 * The row-major grid as far as it could be solved
+		 */
+		private final int[] grid;
+
+		/**
+		 * Whether or not the puzzle was solved completely
+		 */
+		private final boolean solved;
+
+		/**
+		 * The sum of the weights of every step
+		 */
+		private final int score;
+
+		/**
+		 * The hardest {@code Technique} used, or null if no step was taken
+		 */
+		private final Technique hardest;
+
+		/**
+		 * The steps taken, in order
+		 */
+		private final List<Step> steps;
+
+		/**
+		 * Constructs and initializes a {@code Rating}
+		 */
+		Rating(int[] g, boolean s, int c, Technique h, List<Step> l) {
+			grid = g;
+			solved = s;
+			score = c;
+			hardest = h;
+			steps = l;
+		}
+
+		/**
+		 * @return a copy of the row-major grid as far as it could be solved,
+		 *         with 0 representing a cell that could not be filled
+		 */
+		public int[] getGrid() {
+			return grid.clone();
+		}
+
+		/**
+		 * @return whether or not the puzzle was solved completely. If not,
+		 *         it either has no solution or needs a technique the solver
+		 *         does not know
+		 */
+		public boolean isSolved() {
+			return solved;
+		}
+
+		/**
+		 * @return the difficulty score, the sum of the weights of every step
+		 *         taken
+		 */
+		public int getScore() {
+			return score;
+		}
+
+		/**
+		 * @return the hardest {@code Technique} used, or null if no step was
+		 *         taken
+		 */
+		public Technique getHardest() {
+			return hardest;
+		}
+
+		/**
+		 * @return the unmodifiable list of the steps taken, in order
+		 */
+		public List<Step> getSteps() {
+			return steps;
+		}
+
+		@Override
+		public String toString() {
+			return (solved ? "Solved" : "Stuck") + " with score " + score + " in " + steps.size() + " steps"
+					+ (hardest == null ? "" : " (hardest: " + hardest + ")");
+		}
+	}
+}
@@ -2,7 +2,6 @@ package game;
 
 import java.awt.Color;
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Arrays;
 
 /**
@@ -29,6 +28,12 @@ public class Region implements Serializable {
 	 */
 	private final Cell[] cells;
 
+	/**
+	 * The array returned by {@link #getDuplicates()} when there are no
+	 * duplicates
+	 */
+	private static final Cell[] NO_CELLS = new Cell[0];
+
 	/**
 	 * Constructs and initializes a {@code Region} object with the given array
 	 * of {@code Cells}.
@@ -42,41 +47,75 @@ public class Region implements Serializable {
 	}
 
 	/**
-	 * Checks the array of {@code Cells} for one instance of the numbers 1-9.
+	 * Checks the array of {@code Cells} for one instance of every number from 1
+	 * up to the number of {@code Cells} in the {@code Region}, in a single pass
+	 * over the {@code Cells}.
 	 * 
 	 * @return a boolean indicating whether or not this region is complete
 	 */
 	public boolean isComplete() {
+		int seen = Candidates.NONE;
 		for (Cell c : cells) {
-			if (c.getContent() == 0)
+			int bit = Candidates.of(c.getContent());
+			if (bit == Candidates.NONE || (seen & bit) != 0)
 				return false;
-
-			for (Cell x : cells)
-				if (c.getContent() == x.getContent() && c != x)
-					return false;
+			seen |= bit;
 		}
 
 		return true;
 	}
 
+	/**
+	 * Finds the values that appear in more than one {@code Cell} of this
+	 * {@code Region} in a single pass, without allocating any objects.
+	 * 
+	 * @return a candidate mask of every duplicated value, or an empty mask if
+	 *         there are none
+	 * @see Candidates
+	 */
+	public int getDuplicateMask() {
+		int seen = Candidates.NONE, dup = Candidates.NONE;
+		for (Cell c : cells) {
+			int bit = Candidates.of(c.getContent());
+			dup |= seen & bit;
+			seen |= bit;
+		}
+		return dup;
+	}
+
+	/**
+	 * @return whether or not any value appears in more than one {@code Cell}
+	 *         of this {@code Region}
+	 */
+	public boolean hasDuplicates() {
+		return getDuplicateMask() != Candidates.NONE;
+	}
+
 	/**
 	 * Checks the array of {@code Cells} for any {@code Cells} with duplicate
-	 * content.
+	 * content. Nothing is allocated when there are no duplicates.
 	 * 
 	 * @return an array of {@code Cells} that contains the {@code Cells} within
-	 *         the {@code Region} that have the same {@code int} content.
+	 *         the {@code Region} that have the same {@code int} content, each
+	 *         listed once in the order they appear in the {@code Region}
+	 * @see #getDuplicateMask()
 	 */
 	public Cell[] getDuplicates() {
-		ArrayList<Cell> temp = new ArrayList<Cell>();
+		int dup = getDuplicateMask();
+		if (dup == Candidates.NONE)
+			return NO_CELLS;
 
+		int n = 0;
 		for (Cell c : cells)
-			for (Cell x : cells)
-				if (c.getContent() == x.getContent() && c != x && c.getContent() != 0) {
-					temp.add(c);
-					temp.add(x);
-				}
+			if (Candidates.contains(dup, c.getContent()))
+				n++;
 
-		return temp.toArray(new Cell[temp.size()]);
+		Cell[] temp = new Cell[n];
+		n = 0;
+		for (Cell c : cells)
+			if (Candidates.contains(dup, c.getContent()))
+				temp[n++] = c;
+		return temp;
 	}
 
 	/**
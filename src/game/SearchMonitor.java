@@ -0,0 +1,131 @@
+package game;
+
+import java.util.concurrent.Future;
+
+/**
+ * Keeps track of a search that is running in the background. The search
+ * reports every step it explores, and the {@code SearchMonitor} tells it to
+ * stop once its {@code Future} has been cancelled or its time budget has run
+ * out. The clock and the {@code Future} are only checked every few thousand
+ * steps, and progress is reported to the {@code SolveProgressListener} at a
+ * throttled rate.
+ *
+ * @author Declan
+ *
+ */
+class SearchMonitor {
+
+	/**
+	 * The mask of the step counter that decides how often the clock and the
+	 * {@code Future} are checked
+	 */
+	private static final long CHECK_MASK = 0xFFF;
+
+	/**
+	 * The minimum number of nanoseconds between two progress reports
+	 */
+	private static final long REPORT_INTERVAL = 100000000L;
+
+	/**
+	 * The {@code Future} of the search, which is checked for cancellation
+	 */
+	private final Future<?> future;
+
+	/**
+	 * The {@link System#nanoTime()} the search started at
+	 */
+	private final long start;
+
+	/**
+	 * The number of nanoseconds the search may run for
+	 */
+	private final long budget;
+
+	/**
+	 * The listener to report progress to, or null
+	 */
+	private final SolveProgressListener listener;
+
+	/**
+	 * The number of steps explored so far
+	 */
+	private long nodes;
+
+	/**
+	 * The {@link System#nanoTime()} after which progress is reported next
+	 */
+	private long nextReport;
+
+	/**
+	 * Whether or not the search has been told to stop
+	 */
+	private boolean stopped;
+
+	/**
+	 * Whether or not the search was stopped because it ran out of time
+	 */
+	private boolean expired;
+
+	/**
+	 * Constructs and initializes a {@code SearchMonitor}.
+	 *
+	 * @param f
+	 *            the {@code Future} of the search
+	 * @param b
+	 *            the number of nanoseconds the search may run for
+	 * @param l
+	 *            the listener to report progress to, or null
+	 */
+	SearchMonitor(Future<?> f, long b, SolveProgressListener l) {
+		future = f;
+		start = System.nanoTime();
+		budget = b;
+		listener = l;
+		nextReport = start + REPORT_INTERVAL;
+	}
+
+	/**
+	 * Records one step of the search.
+	 *
+	 * @param depth
+	 *            the number of guesses the step is nested in
+	 * @return whether or not the search may continue
+	 */
+	boolean visit(int depth) {
+		if ((++nodes & CHECK_MASK) != 0)
+			return !stopped;
+
+		long now = System.nanoTime();
+		if (future.isCancelled())
+			stopped = true;
+		else if (now - start > budget) {
+			stopped = true;
+			expired = true;
+		} else if (listener != null && now - nextReport >= 0) {
+			listener.progress(nodes, depth);
+			nextReport = now + REPORT_INTERVAL;
+		}
+		return !stopped;
+	}
+
+	/**
+	 * @return whether or not the search has been told to stop
+	 */
+	boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * @return whether or not the search was stopped because it ran out of time
+	 */
+	boolean isExpired() {
+		return expired;
+	}
+
+	/**
+	 * @return the number of steps explored so far
+	 */
+	long getNodes() {
+		return nodes;
+	}
+}
@@ -0,0 +1,375 @@
+package game;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of the solution and the number of solutions of the puzzles
+ * the {@code SudokuSolverToolkit} has been asked about, so that solving or
+ * counting the same givens again, after an undo, in another session, or in
+ * another run over the same file, is a lookup instead of a search. Entries
+ * are keyed by a fingerprint of every value handed to the solver, and the
+ * least recently used entry is evicted once the cache is full.
+ * <p>
+ * Every method is thread-safe. The searches themselves run outside of the
+ * lock, so two threads missing on the same puzzle may both search it. The
+ * cache can be saved to disk with {@link #saveState(String)} and reloaded
+ * with {@link #loadState(String)}, like a {@code SudokuRegister}.
+ *
+ * @author Declan
+ *
+ * @see SudokuSolverToolkit#setSolutionCache(SolutionCache)
+ */
+public class SolutionCache implements Serializable {
+
+	private static final long serialVersionUID = -3180962457395843027L;
+
+	/**
+	 * The number of entries of a {@code SolutionCache} made with the default
+	 * constructor
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	/**
+	 * The solution returned by {@link #getSolution(int[])} for a puzzle that
+	 * is known to have no solution
+	 */
+	static final int[] NO_SOLUTION = new int[0];
+
+	/**
+	 * The entries, from the least recently used to the most recently used
+	 */
+	private final Entries entries;
+
+	/**
+	 * The number of lookups that were answered by the cache and the number
+	 * that were not, since the cache was made or loaded
+	 */
+	private transient long hits, misses;
+
+	/**
+	 * Constructs and initializes an empty {@code SolutionCache} with
+	 * {@link #DEFAULT_CAPACITY} entries
+	 */
+	public SolutionCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs and initializes an empty {@code SolutionCache}
+	 *
+	 * @param capacity
+	 *            the number of entries to keep before the least recently used
+	 *            is evicted
+	 * @throws IllegalArgumentException
+	 *             if the capacity is not positive
+	 */
+	public SolutionCache(int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Invalid capacity " + capacity);
+		entries = new Entries(capacity);
+	}
+
+	/**
+	 * Looks up the solution of a puzzle.
+	 *
+	 * @param grid
+	 *            the row-major grid of the puzzle
+	 * @return a copy of the solution, {@link #NO_SOLUTION} if the puzzle is
+	 *         known to have none, or null if the cache does not know
+	 */
+	synchronized int[] getSolution(int[] grid) {
+		Entry e = entries.get(new Key(grid));
+		if (e == null || !e.searched) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return e.solution == null ? NO_SOLUTION : e.solution.clone();
+	}
+
+	/**
+	 * Records the solution of a puzzle.
+	 *
+	 * @param grid
+	 *            the row-major grid of the puzzle
+	 * @param solution
+	 *            the row-major solution grid, or null if the puzzle has none
+	 */
+	synchronized void putSolution(int[] grid, int[] solution) {
+		Entry e = entry(grid);
+		e.searched = true;
+		e.solution = solution == null ? null : solution.clone();
+		if (solution == null) {
+			e.count = 0;
+			e.exact = true;
+		} else if (e.count < 1) {
+			e.count = 1;
+			e.exact = false;
+		}
+	}
+
+	/**
+	 * Looks up the number of solutions of a puzzle.
+	 *
+	 * @param grid
+	 *            the row-major grid of the puzzle
+	 * @param limit
+	 *            the number of solutions the count would stop at
+	 * @return the number of solutions up to the limit, or -1 if the cache
+	 *         does not know it
+	 */
+	synchronized long getCount(int[] grid, long limit) {
+		Entry e = entries.get(new Key(grid));
+		if (e == null || !(e.exact || e.count >= limit)) {
+			misses++;
+			return -1;
+		}
+		hits++;
+		return Math.min(e.count, limit);
+	}
+
+	/**
+	 * Records the number of solutions of a puzzle.
+	 *
+	 * @param grid
+	 *            the row-major grid of the puzzle
+	 * @param n
+	 *            the number of solutions counted
+	 * @param limit
+	 *            the limit the count stopped at, so that a number that
+	 *            reached it is recorded as a lower bound
+	 */
+	synchronized void putCount(int[] grid, long n, long limit) {
+		Entry e = entry(grid);
+		if (n < limit) {
+			e.count = n;
+			e.exact = true;
+			if (n == 0) {
+				e.searched = true;
+				e.solution = null;
+			}
+		} else if (!e.exact && n > e.count)
+			e.count = n;
+	}
+
+	/**
+	 * @return the entry of a puzzle, added as an empty entry if there is none
+	 */
+	private Entry entry(int[] grid) {
+		Key k = new Key(grid);
+		Entry e = entries.get(k);
+		if (e == null) {
+			e = new Entry();
+			entries.put(k, e);
+		}
+		return e;
+	}
+
+	/**
+	 * Removes every entry and resets the counters
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		hits = misses = 0;
+	}
+
+	/**
+	 * @return the number of entries in the cache
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the number of entries kept before the least recently used is
+	 *         evicted
+	 */
+	public int getCapacity() {
+		return entries.capacity;
+	}
+
+	/**
+	 * @return the number of lookups answered by the cache since it was made
+	 *         or loaded
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of lookups the cache could not answer since it was
+	 *         made or loaded
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the fraction of lookups answered by the cache, or 0 if there
+	 *         have been none
+	 */
+	public synchronized double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * Saves the entries of this {@code SolutionCache} to disk
+	 *
+	 * @param n
+	 *            the {@code String} filename to save the cache to
+	 */
+	public synchronized void saveState(String n) {
+		try {
+			FileOutputStream fos = new FileOutputStream(n);
+			ObjectOutputStream oos = new ObjectOutputStream(fos);
+			oos.writeObject(this);
+			oos.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Replaces the entries of this {@code SolutionCache} with the ones saved
+	 * to disk by {@link #saveState(String)}. Nothing is loaded if the file
+	 * does not exist yet, and if the saved cache held more entries than this
+	 * one can, only the most recently used are kept.
+	 *
+	 * @param n
+	 *            the {@code String} filename the cache was saved to
+	 */
+	public synchronized void loadState(String n) {
+		if (!new File(n).exists())
+			return;
+		try {
+			FileInputStream fis = new FileInputStream(n);
+			ObjectInputStream ois = new ObjectInputStream(fis);
+			SolutionCache temp = (SolutionCache) ois.readObject();
+			ois.close();
+			entries.clear();
+			entries.putAll(temp.entries);
+		} catch (IOException | ClassNotFoundException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%d/%d entries, %d hits, %d misses (%.1f%%)", entries.size(), entries.capacity, hits, misses,
+				100 * getHitRate());
+	}
+
+	/**
+	 * The entries of a {@code SolutionCache} in access order, which evicts the
+	 * least recently used entry once it holds more than its capacity.
+	 *
+	 * @author Declan
+	 *
+	 */
+	private static class Entries extends LinkedHashMap<Key, Entry> {
+
+		private static final long serialVersionUID = 2871154470530146219L;
+
+		/**
+		 * The number of entries kept before the least recently used is evicted
+		 */
+		private final int capacity;
+
+		/**
+		 * Constructs and initializes an empty {@code Entries}
+		 */
+		Entries(int c) {
+			super(16, 0.75f, true);
+			capacity = c;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, SolutionCache.Entry> eldest) {
+			return size() > capacity;
+		}
+	}
+
+	/**
+	 * The fingerprint of a puzzle: every value of its grid, one byte each,
+	 * with the hash of the values worked out once.
+	 *
+	 * @author Declan
+	 *
+	 */
+	private static class Key implements Serializable {
+
+		private static final long serialVersionUID = -6427101948153393612L;
+
+		/**
+		 * The row-major values of the puzzle
+		 */
+		private final byte[] values;
+
+		/**
+		 * The hash of the values
+		 */
+		private final int hash;
+
+		/**
+		 * Constructs and initializes the {@code Key} of a puzzle
+		 */
+		Key(int[] grid) {
+			values = new byte[grid.length];
+			for (int i = 0; i < grid.length; i++)
+				values[i] = (byte) grid[i];
+			hash = Arrays.hashCode(values);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Key && Arrays.equals(values, ((Key) o).values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * What is known about the solutions of one puzzle.
+	 *
+	 * @author Declan
+	 *
+	 */
+	private static class Entry implements Serializable {
+
+		private static final long serialVersionUID = 7751335124012960713L;
+
+		/**
+		 * Whether or not the puzzle has been searched for a solution
+		 */
+		boolean searched;
+
+		/**
+		 * The row-major solution grid, or null if the puzzle has none or has
+		 * not been searched
+		 */
+		int[] solution;
+
+		/**
+		 * The number of solutions, or -1 if they have not been counted
+		 */
+		long count = -1;
+
+		/**
+		 * Whether the number of solutions is exact, or only a lower bound
+		 */
+		boolean exact;
+	}
+}
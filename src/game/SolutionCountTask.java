@@ -0,0 +1,122 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fork/join task that counts the solutions of a {@code CandidateGrid}. The
+ * top levels of the tree of solutions are split into subtasks that each work
+ * on their own copy of the grid, and the rest of every subtree is counted on a
+ * single thread. Idle workers of the {@code ForkJoinPool} steal the remaining
+ * subtasks, which balances the very uneven sizes of the subtrees. Every task
+ * shares one tally of the solutions found so far, so that they can all stop
+ * once a limit has been reached.
+ *
+ * @author Declan
+ *
+ */
+@SuppressWarnings("serial")
+class SolutionCountTask extends RecursiveTask<Long> {
+
+	/**
+	 * The deepest level of the tree of solutions that is split into subtasks
+	 */
+	private static final int MAX_SPLIT_DEPTH = 12;
+
+	/**
+	 * The number of queued subtasks above which a worker stops splitting and
+	 * counts its subtree itself
+	 */
+	private static final int SURPLUS_THRESHOLD = 3;
+
+	/**
+	 * The grid whose solutions this task counts. It is owned by this task
+	 */
+	private final CandidateGrid grid;
+
+	/**
+	 * The level of the tree of solutions this task starts at
+	 */
+	private final int depth;
+
+	/**
+	 * The number of solutions to stop counting at
+	 */
+	private final long limit;
+
+	/**
+	 * The number of solutions found so far by every task counting the same
+	 * tree
+	 */
+	private final AtomicLong found;
+
+	/**
+	 * Constructs and initializes a {@code SolutionCountTask} for the root of
+	 * the tree of solutions of the specified grid.
+	 *
+	 * @param c
+	 *            the {@code CandidateGrid} to count solutions for, which must
+	 *            not be used by any other thread
+	 * @param l
+	 *            the number of solutions to stop counting at
+	 */
+	SolutionCountTask(CandidateGrid c, long l) {
+		this(c, 0, l, new AtomicLong());
+	}
+
+	/**
+	 * Constructs and initializes a {@code SolutionCountTask} for a subtree of
+	 * the tree of solutions.
+	 *
+	 * @param c
+	 *            the {@code CandidateGrid} to count solutions for, which must
+	 *            not be used by any other thread
+	 * @param d
+	 *            the level of the tree of solutions the grid is at
+	 * @param l
+	 *            the number of solutions to stop counting at
+	 * @param f
+	 *            the tally shared by every task counting the same tree
+	 */
+	private SolutionCountTask(CandidateGrid c, int d, long l, AtomicLong f) {
+		grid = c;
+		depth = d;
+		limit = l;
+		found = f;
+	}
+
+	@Override
+	protected Long compute() {
+		long remaining = limit - found.get();
+		if (remaining <= 0)
+			return 0L;
+
+		if (depth >= MAX_SPLIT_DEPTH || getSurplusQueuedTaskCount() > SURPLUS_THRESHOLD) {
+			long n = SudokuSolverToolkit.numSolutions(grid, true, remaining);
+			found.addAndGet(n);
+			return n;
+		}
+
+		if (!grid.propagate())
+			return 0L;
+		int i = grid.mostConstrained();
+		if (i < 0) {
+			found.incrementAndGet();
+			return 1L;
+		}
+
+		int poss = grid.candidates(i);
+		ArrayList<SolutionCountTask> tasks = new ArrayList<SolutionCountTask>(Candidates.count(poss));
+		for (int v = Candidates.first(poss); v != 0; v = Candidates.next(poss, v)) {
+			CandidateGrid c = new CandidateGrid(grid);
+			c.place(i, v);
+			tasks.add(new SolutionCountTask(c, depth + 1, limit, found));
+		}
+
+		long sum = 0;
+		for (SolutionCountTask t : invokeAll(tasks))
+			sum += t.join();
+		return sum;
+	}
+}
@@ -0,0 +1,25 @@
+package game;
+
+/**
+ * The listener interface for receiving progress reports from a solve that is
+ * running in the background. Reports are throttled, and are delivered on the
+ * thread that is running the solve rather than the event dispatch thread.
+ *
+ * @author Declan
+ *
+ * @see SudokuSolverToolkit#solveAsync(SudokuGame, long,
+ *      java.util.concurrent.TimeUnit, SolveProgressListener)
+ */
+public interface SolveProgressListener {
+
+	/**
+	 * Invoked periodically while the solve is running.
+	 *
+	 * @param nodes
+	 *            the number of steps of the search that have been explored so
+	 *            far
+	 * @param depth
+	 *            the number of guesses the search is currently nested in
+	 */
+	void progress(long nodes, int depth);
+}
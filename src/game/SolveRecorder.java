@@ -0,0 +1,34 @@
+package game;
+
+/**
+ * Emits the statistics of every solve to somewhere outside the application
+ * while something there wants them. The only implementation is
+ * {@code SolveEvent}, the Java Flight Recorder event, which lives in the
+ * separate {@code jfr/src} tree so that the rest of the project still
+ * compiles against Java 8. It is looked up by name, and solves are simply not
+ * emitted when it was not built or cannot be loaded.
+ *
+ * @author Declan
+ *
+ * @see SolveStatistics
+ */
+interface SolveRecorder {
+
+	/**
+	 * Starts recording a solve, if anything wants it.
+	 *
+	 * @return the started recording of the solve, or null if nothing wants it
+	 */
+	Object start();
+
+	/**
+	 * Ends the recording of a solve and emits it with the statistics of the
+	 * solve.
+	 *
+	 * @param o
+	 *            the recording returned by {@link #start()}
+	 * @param st
+	 *            the statistics of the solve
+	 */
+	void finish(Object o, SolveStatistics st);
+}
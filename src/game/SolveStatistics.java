@@ -0,0 +1,292 @@
+package game;
+
+/**
+ * What one solve or count of the {@code SudokuSolverToolkit} did: how many
+ * steps of the search it visited, how many guesses it made and how many of
+ * them led nowhere, how deeply its guesses were nested, and how long it spent
+ * validating the puzzle before searching it. A {@code SolveStatistics} is
+ * passed to a solve or count to be filled in, and is cleared at the start of
+ * every solve it is passed to.
+ * <p>
+ * Solves that are not given a {@code SolveStatistics} record nothing, unless a
+ * Java Flight Recorder recording has the {@code game.Solve} event enabled, in
+ * which case every solve is recorded and emitted as an event so that slow
+ * solves show up in the recording. The event is only built by JDKs that have
+ * Flight Recorder. Recordings are only looked for when a solve starts, so the
+ * search itself costs the same as before while nothing is being recorded.
+ *
+ * @author Declan
+ *
+ * @see SudokuSolverToolkit#solveGame(SudokuGame, SolverStrategy,
+ *      SolveStatistics)
+ * @see SudokuSolverToolkit#countSolutions(SudokuGame, SolverStrategy, int,
+ *      TranspositionTable, SolveStatistics)
+ */
+public final class SolveStatistics {
+
+	/**
+	 * The name of the Flight Recorder event class, which is only built when
+	 * the JDK has Flight Recorder
+	 */
+	private static final String RECORDER_CLASS = "game.SolveEvent";
+
+	/**
+	 * The {@code SolveRecorder} that emits solves to Flight Recorder, or null
+	 * if it was not built or cannot be loaded
+	 */
+	private static final SolveRecorder RECORDER = recorder();
+
+	/**
+	 * The {@code SolverStrategy} of the solve
+	 */
+	private SolverStrategy strategy;
+
+	/**
+	 * The number of steps of the search visited, the number of guesses made,
+	 * the number of guesses that led to no solution, and the number of times
+	 * a {@code SudokuGame} was checked for being won
+	 */
+	private long nodes, candidates, backtracks, wonChecks;
+
+	/**
+	 * The number of guesses the search is currently nested in, and the most it
+	 * has been nested in
+	 */
+	private int depth, maxDepth;
+
+	/**
+	 * The number of solutions found, up to the limit of a count
+	 */
+	private long solutions;
+
+	/**
+	 * Whether or not the answer came from the {@code SolutionCache} instead of
+	 * a search
+	 */
+	private boolean cached;
+
+	/**
+	 * The nanoseconds spent validating the puzzle and building the state of
+	 * the search, and the nanoseconds spent searching
+	 */
+	private long validationNanos, searchNanos;
+
+	/**
+	 * The {@link System#nanoTime()} the current phase of the solve started at
+	 */
+	private long mark;
+
+	/**
+	 * The Flight Recorder event of the solve, or null if it is not being
+	 * recorded. Only the {@code SolveRecorder} knows its type
+	 */
+	private Object event;
+
+	/**
+	 * Constructs and initializes an empty {@code SolveStatistics}
+	 */
+	public SolveStatistics() {
+	}
+
+	/**
+	 * @return the {@code SolveRecorder} that emits solves to Flight Recorder,
+	 *         or null if it was not built or cannot be loaded
+	 */
+	private static SolveRecorder recorder() {
+		try {
+			return (SolveRecorder) Class.forName(RECORDER_CLASS).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Starts recording a solve. The solve is recorded in the
+	 * {@code SolveStatistics} it was given, or in a new one if it was given
+	 * none but a Flight Recorder recording wants it.
+	 *
+	 * @param st
+	 *            the {@code SolveStatistics} given to the solve, or null
+	 * @param s
+	 *            the {@code SolverStrategy} of the solve
+	 * @return the {@code SolveStatistics} to record the solve in, or null if
+	 *         it is not being recorded
+	 */
+	static SolveStatistics start(SolveStatistics st, SolverStrategy s) {
+		Object e = RECORDER == null ? null : RECORDER.start();
+		if (st == null) {
+			if (e == null)
+				return null;
+			st = new SolveStatistics();
+		}
+
+		st.strategy = s;
+		st.nodes = st.candidates = st.backtracks = st.wonChecks = 0;
+		st.depth = st.maxDepth = 0;
+		st.solutions = 0;
+		st.cached = false;
+		st.validationNanos = st.searchNanos = 0;
+		st.event = e;
+		st.mark = System.nanoTime();
+		return st;
+	}
+
+	/**
+	 * Ends the validation of the puzzle and starts the search
+	 */
+	void searching() {
+		long now = System.nanoTime();
+		validationNanos += now - mark;
+		mark = now;
+	}
+
+	/**
+	 * Records one step of the search
+	 */
+	void visit() {
+		nodes++;
+	}
+
+	/**
+	 * Records a candidate being placed as a guess, one level deeper
+	 */
+	void guess() {
+		candidates++;
+		if (++depth > maxDepth)
+			maxDepth = depth;
+	}
+
+	/**
+	 * Records a guess being taken back.
+	 *
+	 * @param deadEnd
+	 *            whether or not the guess led to no solution
+	 */
+	void retract(boolean deadEnd) {
+		depth--;
+		if (deadEnd)
+			backtracks++;
+	}
+
+	/**
+	 * Records a {@code SudokuGame} being checked for being won
+	 */
+	void checkWon() {
+		wonChecks++;
+	}
+
+	/**
+	 * Ends the solve, and emits its Flight Recorder event if it is being
+	 * recorded.
+	 *
+	 * @param n
+	 *            the number of solutions found
+	 * @param c
+	 *            whether or not the answer came from the
+	 *            {@code SolutionCache}
+	 */
+	void finish(long n, boolean c) {
+		long now = System.nanoTime();
+		if (c)
+			validationNanos += now - mark;
+		else
+			searchNanos += now - mark;
+		mark = now;
+		solutions = n;
+		cached = c;
+
+		if (event != null) {
+			RECORDER.finish(event, this);
+			event = null;
+		}
+	}
+
+	/**
+	 * @return the {@code SolverStrategy} of the solve
+	 */
+	public SolverStrategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * @return the number of steps of the search visited
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return the number of candidates placed as guesses
+	 */
+	public long getCandidatesEvaluated() {
+		return candidates;
+	}
+
+	/**
+	 * @return the number of guesses that led to no solution and were taken
+	 *         back
+	 */
+	public long getBacktracks() {
+		return backtracks;
+	}
+
+	/**
+	 * @return the most guesses the search was nested in
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * @return the number of times a {@code SudokuGame} was checked for being
+	 *         won, which only the {@code SolverStrategy.BACKTRACKING} search
+	 *         does
+	 */
+	public long getIsWonCalls() {
+		return wonChecks;
+	}
+
+	/**
+	 * @return the number of solutions found, up to the limit of a count
+	 */
+	public long getSolutions() {
+		return solutions;
+	}
+
+	/**
+	 * @return whether or not the answer came from the {@code SolutionCache}
+	 *         instead of a search
+	 */
+	public boolean isCached() {
+		return cached;
+	}
+
+	/**
+	 * @return the nanoseconds spent looking up the puzzle, validating it and
+	 *         building the state of the search
+	 */
+	public long getValidationNanos() {
+		return validationNanos;
+	}
+
+	/**
+	 * @return the nanoseconds spent searching
+	 */
+	public long getSearchNanos() {
+		return searchNanos;
+	}
+
+	/**
+	 * @return the nanoseconds the whole solve took
+	 */
+	public long getTotalNanos() {
+		return validationNanos + searchNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d solutions%s, %d nodes, %d candidates, %d backtracks, depth %d, %d isWon calls, "
+				+ "%.3f ms validating, %.3f ms searching", strategy, solutions, cached ? " (cached)" : "", nodes,
+				candidates, backtracks, maxDepth, wonChecks, validationNanos / 1e6, searchNanos / 1e6);
+	}
+}
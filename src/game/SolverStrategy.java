@@ -0,0 +1,42 @@
+package game;
+
+/**
+ * The different search backends that the {@code SudokuSolverToolkit} can use
+ * to solve a {@code SudokuGame} or count its solutions.
+ *
+ * @author Declan
+ *
+ */
+public enum SolverStrategy {
+
+	/**
+	 * Brute-force checking and backtracking over the {@code Cells} of the
+	 * {@code SudokuGame} in row-major order
+	 */
+	BACKTRACKING,
+
+	/**
+	 * Checking and backtracking that always branches on the blank
+	 * {@code Cell} with the fewest candidates, whose counts are maintained
+	 * incrementally as values are placed and removed
+	 *
+	 * @see CandidateGrid
+	 */
+	MINIMUM_REMAINING_VALUES,
+
+	/**
+	 * The same search as {@link #MINIMUM_REMAINING_VALUES}, but every naked
+	 * and hidden single is filled in before branching at every step
+	 *
+	 * @see CandidateGrid#propagate()
+	 */
+	CONSTRAINT_PROPAGATION,
+
+	/**
+	 * Knuth's Algorithm X over the exact cover form of the
+	 * {@code SudokuGame}, implemented with Dancing Links
+	 *
+	 * @see DancingLinks
+	 */
+	DANCING_LINKS
+}
@@ -4,6 +4,8 @@ import gui.SudokuSerializable;
 
 import java.awt.Color;
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.NoSuchElementException;
@@ -26,16 +28,35 @@ public class SudokuGame implements SudokuSerializable {
 	private static final long serialVersionUID = -1549447228701748191L;
 
 	/**
-	 * An array of {@code Cell} objects that represent the 81 different
-	 * {@code Cells} on a regular Sudoku board
+	 * The side length of the largest supported board, whose values still fit
+	 * in a candidate mask and can be written as a single symbol
 	 */
-	protected Cell[][] cells = new Cell[9][9];
+	public static final int MAX_SIZE = 25;
+
+	/**
+	 * An array of {@code Cell} objects that represent the different
+	 * {@code Cells} on the board, 81 on a regular Sudoku board
+	 */
+	protected Cell[][] cells;
+
+	/**
+	 * The compact {@code Board} that holds the content of every {@code Cell},
+	 * which are views over it. It is rebuilt from the {@code Cells} when a game
+	 * is loaded, so the serialized form of a {@code SudokuGame} is unchanged
+	 */
+	transient Board board;
+
+	/**
+	 * The precomputed row, column, box and peers of every {@code Cell} and the
+	 * {@code Cells} of every {@code Region}, shared by every game of this size
+	 */
+	transient Topology topology;
 
 	/**
 	 * An array of {@code Region} objects that represent the various rows,
 	 * columns, and boxes that are part of the Sudoku game
 	 */
-	private Region[][] regions = new Region[3][9];
+	private Region[][] regions;
 
 	/**
 	 * The default color for the {@code Cells} and the values displayed
@@ -88,59 +109,218 @@ public class SudokuGame implements SudokuSerializable {
 	/**
 	 * The stack that stores the history of the {@code SudokuGame}
 	 */
-	private ArrayDeque<Turn> history = new ArrayDeque<Turn>();
+	ArrayDeque<Turn> history = new ArrayDeque<Turn>();
 
 	/**
 	 * The stack that stores the undone changes, before they are erased or
 	 * redone
 	 */
-	private ArrayDeque<Turn> future = new ArrayDeque<Turn>();
+	ArrayDeque<Turn> future = new ArrayDeque<Turn>();
 
 	/**
-	 * Constructs and initializes a new SudokuGame with a completely blank board
-	 * and given name
+	 * The rows, columns and boxes whose content changed since the last
+	 * {@link #refresh()}, as one bitmask of {@code Region} indices for each of
+	 * the three kinds of {@code Region}. Null means that every {@code Cell}
+	 * has to be recolored, which is the case for a new or loaded game and
+	 * after the {@code Colors} change
+	 */
+	private transient int[] dirty;
+
+	/**
+	 * The number of {@code Cells} holding every value in every {@code Region},
+	 * indexed by the rows, then the columns, then the boxes, and then by
+	 * value. These counts, and the totals derived from them, are kept up to
+	 * date by every change made through the {@code SudokuGame} and are
+	 * rebuilt when a game is loaded
+	 */
+	private transient int[][] occupancy;
+
+	/**
+	 * The candidate mask of the values present in every {@code Region},
+	 * indexed the same way as {@link #occupancy}
+	 */
+	private transient int[] present;
+
+	/**
+	 * The candidate mask of the values held by more than one {@code Cell} of
+	 * every {@code Region}, indexed the same way as {@link #occupancy}
+	 */
+	private transient int[] duplicates;
+
+	/**
+	 * The number of {@code Cells} that hold a value
+	 */
+	private transient int filled;
+
+	/**
+	 * The number of {@code Regions} that hold a duplicated value
+	 */
+	private transient int duplicated;
+
+	/**
+	 * The listeners told about every change to the content of this
+	 * {@code SudokuGame}, or null if there are none. The array is replaced
+	 * rather than changed, so that a listener can remove itself while it is
+	 * being told about a change. Listeners belong to whatever is showing the
+	 * game, so they are not saved with it
+	 */
+	private transient SudokuGameListener[] listeners;
+
+	/**
+	 * Constructs and initializes a new SudokuGame with a completely blank
+	 * regular 9x9 board and given name
 	 * 
 	 * @param n
 	 *            the {@code String} name of the newly constructed
 	 *            {@code SudokuGame}
 	 */
 	public SudokuGame(String n) {
+		this(n, 9);
+	}
+
+	/**
+	 * Constructs and initializes a new SudokuGame with a completely blank board
+	 * of the given size and given name
+	 * 
+	 * @param n
+	 *            the {@code String} name of the newly constructed
+	 *            {@code SudokuGame}
+	 * @param s
+	 *            the side length of the board, such as 9, 16 or 25
+	 * @throws IllegalArgumentException
+	 *             if the size is not a supported board size
+	 * @see #isValidSize(int)
+	 */
+	public SudokuGame(String n, int s) {
+		if (!isValidSize(s))
+			throw new IllegalArgumentException("Invalid board size " + s);
 		name = n;
+		cells = new Cell[s][s];
+		regions = new Region[3][s];
+		topology = Topology.of(s);
 
+		board = new Board(s);
 		for (int y = 0; y < cells.length; y++)
-			for (int x = 0; x < cells[y].length; x++)
+			for (int x = 0; x < cells[y].length; x++) {
 				cells[y][x] = new Cell(x, y, standard);
+				cells[y][x].attach(board, board.index(y, x));
+			}
 
-		// Rows
-		for (int i = 0; i < regions[0].length; i++) {
-			Cell[] region = Arrays.copyOfRange(cells[i], 0, cells[i].length);
-			regions[0][i] = new Region(region);
+		// Rows, then columns, then squares
+		for (int k = 0; k < 3; k++)
+			for (int i = 0; i < s; i++) {
+				int[] unit = topology.units[k * s + i];
+				Cell[] region = new Cell[s];
+				for (int j = 0; j < s; j++)
+					region[j] = cells[unit[j] / s][unit[j] % s];
+				regions[k][i] = new Region(region);
 
-			for (Cell c : Arrays.copyOfRange(cells[i], 0, cells[i].length))
-				c.setRegion(0, regions[0][i]);
-		}
+				for (Cell c : region)
+					c.setRegion(k, regions[k][i]);
+			}
 
-		// Columns
-		for (int i = 0; i < regions[1].length; i++) {
-			Cell[] region = new Cell[] { cells[0][0 + i], cells[1][0 + i], cells[2][0 + i], cells[3][0 + i], cells[4][0 + i], cells[5][0 + i], cells[6][0 + i], cells[7][0 + i], cells[8][0 + i] };
-			regions[1][i] = new Region(region);
+		recount();
+	}
 
-			for (Cell c : region)
-				c.setRegion(1, regions[1][i]);
-		}
+	/**
+	 * Restores a {@code SudokuGame} from serialized form, moves the content of
+	 * every {@code Cell} onto a new {@code Board}, and rebuilds the counts of
+	 * the values in every {@code Region}, none of which are saved
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		topology = Topology.of(cells.length);
+		board = new Board(cells.length);
+		for (int y = 0; y < cells.length; y++)
+			for (int x = 0; x < cells[y].length; x++)
+				cells[y][x].attach(board, board.index(y, x));
+		recount();
+	}
 
-		// Squares
-		int j = 0;
-		for (int i = 0; i < 3; i++)
-			for (int x = 0; x < 3; x++) {
-				Cell[] region = new Cell[] { cells[0 + (3 * i)][0 + (3 * x)], cells[0 + (3 * i)][1 + (3 * x)], cells[0 + (3 * i)][2 + (3 * x)], cells[1 + (3 * i)][0 + (3 * x)], cells[1 + (3 * i)][1 + (3 * x)], cells[1 + (3 * i)][2 + (3 * x)], cells[2 + (3 * i)][0 + (3 * x)], cells[2 + (3 * i)][1 + (3 * x)], cells[2 + (3 * i)][2 + (3 * x)] };
-				regions[2][j] = new Region(region);
+	/**
+	 * Rebuilds the counts of the values in every {@code Region} from the
+	 * {@code Board}
+	 */
+	private void recount() {
+		int size = getSize();
+		occupancy = new int[3 * size][size + 1];
+		present = new int[3 * size];
+		duplicates = new int[3 * size];
+		filled = 0;
+		duplicated = 0;
+		for (int i = 0; i < size * size; i++)
+			changed(i, 0, board.get(i));
+	}
 
-				for (Cell c : region)
-					c.setRegion(2, regions[2][j]);
-				j++;
-			}
+	/**
+	 * @return an independent copy of the compact {@code Board} holding the
+	 *         content of every {@code Cell} and which of them are givens
+	 */
+	public Board toBoard() {
+		return new Board(board);
+	}
+
+	/**
+	 * @return the 64-bit Zobrist hash of the content of every {@code Cell},
+	 *         which is kept up to date by {@link #set(int, int, int)},
+	 *         {@link #undo()} and {@link #redo()}
+	 * @see Board#getZobristHash()
+	 */
+	public long getZobristHash() {
+		return board.getZobristHash();
+	}
+
+	/**
+	 * @param s
+	 *            the side length of a board
+	 * @return whether or not a board of that size can be created, which is
+	 *         the case for every square of a box side length from 2 up to
+	 *         {@link #MAX_SIZE}
+	 */
+	public static boolean isValidSize(int s) {
+		int b = (int) Math.round(Math.sqrt(s));
+		return b >= 2 && b * b == s && s <= MAX_SIZE;
+	}
+
+	/**
+	 * @return the side length of the board, 9 on a regular Sudoku board
+	 */
+	public int getSize() {
+		return cells.length;
+	}
 
+	/**
+	 * @return the side length of one box of the board, 3 on a regular Sudoku
+	 *         board
+	 */
+	public int getBoxSize() {
+		return (int) Math.round(Math.sqrt(cells.length));
+	}
+
+	/**
+	 * @param v
+	 *            a value from 1 to {@link #MAX_SIZE}
+	 * @return the symbol the value is written as, which is the digit itself up
+	 *         to 9 and a letter starting from {@code A} above that
+	 */
+	public static char toSymbol(int v) {
+		return v <= 9 ? (char) ('0' + v) : (char) ('A' + v - 10);
+	}
+
+	/**
+	 * @param c
+	 *            a symbol written by {@link #toSymbol(int)}, in either case,
+	 *            or {@code 0} or {@code .} for a blank {@code Cell}
+	 * @return the value the symbol stands for, 0 for a blank {@code Cell}, or
+	 *         -1 if the character is not a symbol
+	 */
+	public static int fromSymbol(char c) {
+		if (c == '.' || (c >= '0' && c <= '9'))
+			return c == '.' ? 0 : c - '0';
+		char u = Character.toUpperCase(c);
+		if (u >= 'A' && u < 'A' + MAX_SIZE - 9)
+			return u - 'A' + 10;
+		return -1;
 	}
 
 	/**
@@ -168,11 +348,183 @@ public class SudokuGame implements SudokuSerializable {
 	 * @return the value that {@code Cell} previously contained
 	 */
 	public int set(int x, int y, int v) {
-		int prev = cells[x][y].getContent();
-		cells[x][y].setContent(v);
+		int i = board.index(x, y);
+		int prev = board.get(i);
+		if (!board.isGiven(i)) {
+			board.set(i, v);
+			changed(i, prev, v);
+		}
 		return prev;
 	}
 
+	/**
+	 * Updates the counts of the values in the row, column and box of a
+	 * {@code Cell} whose content changed, and marks them to be checked again
+	 * at the next {@link #refresh()}. If anything is listening to this
+	 * {@code SudokuGame}, the {@code Cells} are recolored straight away and
+	 * the listeners are told which {@code Cell} changed and which of its
+	 * {@code Regions} changed state
+	 * 
+	 * @param i
+	 *            the row-major index of the {@code Cell} that changed
+	 * @param prev
+	 *            the value the {@code Cell} held before
+	 * @param post
+	 *            the value the {@code Cell} holds now
+	 */
+	private void changed(int i, int prev, int post) {
+		if (prev == post)
+			return;
+		int size = getSize();
+		int row = topology.row[i], col = topology.col[i], box = topology.boxOf[i];
+		SudokuGameListener[] ls = listeners;
+		int rowState = 0, colState = 0, boxState = 0;
+		if (ls != null) {
+			rowState = stateOf(row);
+			colState = stateOf(size + col);
+			boxState = stateOf(2 * size + box);
+		}
+
+		remove(row, prev);
+		remove(size + col, prev);
+		remove(2 * size + box, prev);
+		add(row, post);
+		add(size + col, post);
+		add(2 * size + box, post);
+		filled += (post != 0 ? 1 : 0) - (prev != 0 ? 1 : 0);
+
+		if (dirty != null) {
+			dirty[0] |= 1 << row;
+			dirty[1] |= 1 << col;
+			dirty[2] |= 1 << box;
+		}
+
+		if (ls != null) {
+			refresh();
+			for (SudokuGameListener l : ls)
+				l.cellChanged(this, row, col, prev, post);
+			if (stateOf(row) != rowState)
+				fireRegionStateChanged(ls, row);
+			if (stateOf(size + col) != colState)
+				fireRegionStateChanged(ls, size + col);
+			if (stateOf(2 * size + box) != boxState)
+				fireRegionStateChanged(ls, 2 * size + box);
+		}
+	}
+
+	/**
+	 * @return the state of a {@code Region} that decides the {@code Colors}
+	 *         of its {@code Cells}, which is its mask of duplicated values and
+	 *         whether or not it is complete, packed into one {@code int}
+	 */
+	private int stateOf(int r) {
+		return duplicates[r] << 1 | (present[r] == Candidates.all(getSize()) ? 1 : 0);
+	}
+
+	/**
+	 * Tells the listeners of this {@code SudokuGame} that a {@code Region}
+	 * changed state
+	 * 
+	 * @param ls
+	 *            the listeners to tell
+	 * @param r
+	 *            the index of the {@code Region}, counting the rows, then the
+	 *            columns, then the boxes
+	 */
+	private void fireRegionStateChanged(SudokuGameListener[] ls, int r) {
+		int size = getSize();
+		Region region = regions[r / size][r % size];
+		boolean full = present[r] == Candidates.all(size);
+		for (SudokuGameListener l : ls)
+			l.regionStateChanged(this, region, full, duplicates[r]);
+	}
+
+	/**
+	 * Adds a listener to be told about every change to the content of this
+	 * {@code SudokuGame}. While anything is listening, the {@code Colors} of
+	 * the {@code Cells} are kept up to date as the game changes instead of at
+	 * the next {@link #refresh()}, starting with a refresh when the listener
+	 * is added.
+	 * 
+	 * @param l
+	 *            the {@code SudokuGameListener} to add
+	 */
+	public void addSudokuGameListener(SudokuGameListener l) {
+		if (l == null)
+			return;
+		refresh();
+		if (listeners == null)
+			listeners = new SudokuGameListener[] { l };
+		else {
+			listeners = Arrays.copyOf(listeners, listeners.length + 1);
+			listeners[listeners.length - 1] = l;
+		}
+	}
+
+	/**
+	 * Removes a listener added by
+	 * {@link #addSudokuGameListener(SudokuGameListener)}, if it was added
+	 * 
+	 * @param l
+	 *            the {@code SudokuGameListener} to remove
+	 */
+	public void removeSudokuGameListener(SudokuGameListener l) {
+		if (listeners == null)
+			return;
+		for (int k = 0; k < listeners.length; k++)
+			if (listeners[k] == l) {
+				if (listeners.length == 1)
+					listeners = null;
+				else {
+					SudokuGameListener[] rest = new SudokuGameListener[listeners.length - 1];
+					System.arraycopy(listeners, 0, rest, 0, k);
+					System.arraycopy(listeners, k + 1, rest, k, rest.length - k);
+					listeners = rest;
+				}
+				return;
+			}
+	}
+
+	/**
+	 * @return the row-major index of a {@code Cell} of this game on its
+	 *         {@code Board}
+	 */
+	private int indexOf(Cell c) {
+		return board.index(c.getPoint().y, c.getPoint().x);
+	}
+
+	/**
+	 * Counts one more {@code Cell} holding a value in a {@code Region}
+	 */
+	private void add(int r, int v) {
+		if (v == 0)
+			return;
+		int n = ++occupancy[r][v];
+		if (n == 1)
+			present[r] |= Candidates.of(v);
+		else if (n == 2) {
+			if (duplicates[r] == Candidates.NONE)
+				duplicated++;
+			duplicates[r] |= Candidates.of(v);
+		}
+	}
+
+	/**
+	 * Counts one less {@code Cell} holding a value in a {@code Region}
+	 */
+	private void remove(int r, int v) {
+		if (v == 0)
+			return;
+		int n = --occupancy[r][v];
+		if (n == 0)
+			present[r] &= ~Candidates.of(v);
+		else if (n == 1) {
+			duplicates[r] &= ~Candidates.of(v);
+			if (duplicates[r] == Candidates.NONE)
+				duplicated--;
+		}
+	}
+
 	/**
 	 * @return the name of this {@code SudokuGame}
 	 */
@@ -191,35 +543,116 @@ public class SudokuGame implements SudokuSerializable {
 	}
 
 	/**
-	 * Colors every {@code Region} in the {@code SudokuGame} to the standard
-	 * {@code Color}, then checks for complete {@code Regions}, and for
-	 * duplicates within {@code Regions} and colors both of those cases
-	 * differently.
+	 * Brings the {@code Color} of every {@code Cell} up to date. A
+	 * {@code Cell} that holds a value duplicated in one of its {@code Regions}
+	 * gets the duplicate {@code Color}, otherwise a {@code Cell} in a complete
+	 * {@code Region} gets the complete {@code Color}, and every other
+	 * {@code Cell} gets the standard {@code Color}.
+	 * <p>
+	 * Only the rows, columns and boxes touched by {@link #set(int, int, int)},
+	 * {@link #undo()} or {@link #redo()} since the last refresh are checked
+	 * again, and only their {@code Cells} are recolored, so nothing is done at
+	 * all if nothing changed.
 	 */
 	public void refresh() {
-		for (Region[] ra : regions)
-			for (Region r : ra)
-				r.colorAll(standard);
-		for (Region[] ra : regions)
-			for (Region r : ra)
-				if (r.isComplete())
-					r.colorAll(complete);
+		if (dirty == null) {
+			int all = -1 >>> (32 - getSize());
+			dirty = new int[] { all, all, all };
+		}
+		if ((dirty[0] | dirty[1] | dirty[2]) == 0)
+			return;
+
+		int size = getSize();
+		for (int k = 0; k < 3; k++)
+			for (int i = 0; i < size; i++)
+				if ((dirty[k] & 1 << i) != 0)
+					for (int c : topology.units[k * size + i])
+						recolor(c);
+
+		dirty[0] = dirty[1] = dirty[2] = 0;
+	}
 
-		for (Region[] ra : regions)
-			for (Region r : ra)
-				for (Cell c : r.getDuplicates())
-					c.setColor(duplicate);
+	/**
+	 * Sets the {@code Color} of a {@code Cell} from the current counts of its
+	 * row, column and box.
+	 * 
+	 * @param i
+	 *            the row-major index of the {@code Cell} to recolor
+	 */
+	private void recolor(int i) {
+		int size = getSize();
+		int row = topology.row[i], col = size + topology.col[i], box = 2 * size + topology.boxOf[i];
+		int all = Candidates.all(size);
+		Cell c = cells[topology.row[i]][topology.col[i]];
+
+		if (Candidates.contains(duplicates[row] | duplicates[col] | duplicates[box], board.get(i)))
+			c.setColor(duplicate);
+		else if (present[row] == all || present[col] == all || present[box] == all)
+			c.setColor(complete);
+		else
+			c.setColor(standard);
 	}
 
 	/**
-	 * @return whether or not the {@code SudokuGame} is finished.
+	 * @return whether or not the {@code SudokuGame} is finished, which is read
+	 *         from the counts of the values in every {@code Region} in
+	 *         constant time
 	 */
 	public boolean isWon() {
-		for (Region[] ra : regions)
-			for (Region r : ra)
-				if (!r.isComplete() || r.getDuplicates().length != 0)
-					return false;
-		return true;
+		return filled == cells.length * cells.length && duplicated == 0;
+	}
+
+	/**
+	 * Returns the values that could still go in the <code>Cell</code> at the
+	 * specified xy position, read in constant time from the values present in
+	 * its row, column and box. Those are kept up to date by every change, so
+	 * the answer never goes stale and nothing has to be recalculated until a
+	 * {@code Cell} sharing a {@code Region} with it changes.
+	 * 
+	 * @param x
+	 *            the x value of the <code>Cell</code>
+	 * @param y
+	 *            the y value of the <code>Cell</code>
+	 * @return the candidate mask of the values held by no other {@code Cell}
+	 *         of its row, column or box, or an empty mask if the
+	 *         {@code Cell} already has a value
+	 * @see Candidates
+	 */
+	public int getCandidates(int x, int y) {
+		int i = board.index(x, y);
+		if (board.get(i) != 0)
+			return Candidates.NONE;
+		int size = getSize();
+		int used = present[topology.row[i]] | present[size + topology.col[i]] | present[2 * size + topology.boxOf[i]];
+		return Candidates.all(size) & ~used;
+	}
+
+	/**
+	 * @return the number of {@code Cells} that hold a value
+	 */
+	public int getFilledCount() {
+		return filled;
+	}
+
+	/**
+	 * Checks whether or not a {@code Region} of this {@code SudokuGame} holds
+	 * every value exactly once, in constant time.
+	 * 
+	 * @param r
+	 *            a row, column or box of this {@code SudokuGame}
+	 * @return whether or not the {@code Region} is complete
+	 * @throws IllegalArgumentException
+	 *             if the {@code Region} is not part of this
+	 *             {@code SudokuGame}
+	 */
+	public boolean isComplete(Region r) {
+		Cell c = r.getCells()[0];
+		int i = indexOf(c), size = getSize();
+		int[] index = { topology.row[i], topology.col[i], topology.boxOf[i] };
+		for (int k = 0; k < 3; k++)
+			if (c.regions[k] == r && regions[k][index[k]] == r)
+				return present[k * size + index[k]] == Candidates.all(size);
+		throw new IllegalArgumentException("The Region is not part of " + name);
 	}
 
 	@Override
@@ -249,14 +682,11 @@ public class SudokuGame implements SudokuSerializable {
 
 	/**
 	 * @return whether or not the game contains duplicate numbers within
-	 *         {@code Regions}
+	 *         {@code Regions}, which is read from the counts of the values in
+	 *         every {@code Region} in constant time
 	 */
 	public boolean hasDuplicates() {
-		for (Region[] ra : regions)
-			for (Region r : ra)
-				if (r.getDuplicates().length != 0)
-					return true;
-		return false;
+		return duplicated != 0;
 	}
 
 	/**
@@ -286,7 +716,9 @@ public class SudokuGame implements SudokuSerializable {
 			return;
 		}
 		future.push(un);
+		int prev = un.getCell().getContent();
 		un.undoChange();
+		changed(indexOf(un.getCell()), prev, un.getCell().getContent());
 		this.refresh();
 	}
 
@@ -303,7 +735,9 @@ public class SudokuGame implements SudokuSerializable {
 			return;
 		}
 		history.push(un);
+		int prev = un.getCell().getContent();
 		un.redoChange();
+		changed(indexOf(un.getCell()), prev, un.getCell().getContent());
 		this.refresh();
 	}
 
@@ -319,7 +753,9 @@ public class SudokuGame implements SudokuSerializable {
 
 	/**
 	 * Changes the value of the three different {@code Colors} that make up the
-	 * {@code SudokuBoard}
+	 * {@code SudokuBoard}. Every {@code Cell} is recolored at the next
+	 * {@link #refresh()}, or straight away if anything is listening to this
+	 * {@code SudokuGame}
 	 * 
 	 * @param s
 	 *            the standard {@code Color} to change to
@@ -332,6 +768,17 @@ public class SudokuGame implements SudokuSerializable {
 		this.standard = s;
 		this.complete = c;
 		this.duplicate = d;
+		dirty = null;
+		if (listeners != null)
+			refresh();
+	}
+
+	/**
+	 * @return the color scheme of this {@code SudokuGame} with the standard at
+	 *         array[0], complete at array[1], and duplicate at array[2]
+	 */
+	public Color[] getColors() {
+		return new Color[] { standard, complete, duplicate };
 	}
 
 	/**
@@ -0,0 +1,55 @@
+package game;
+
+import java.util.EventListener;
+
+/**
+ * The listener interface for receiving changes to the content of a
+ * {@code SudokuGame}, whether they are made by {@code set}, {@code undo},
+ * {@code redo} or a solve. Events are delivered on the thread that made the
+ * change, after the {@code Colors} of the affected {@code Cells} have been
+ * brought up to date, so that a listener only has to read the
+ * {@code SudokuGame} to show it.
+ *
+ * @author Declan
+ *
+ * @see SudokuGame#addSudokuGameListener(SudokuGameListener)
+ */
+public interface SudokuGameListener extends EventListener {
+
+	/**
+	 * Invoked when the content of a {@code Cell} changes.
+	 *
+	 * @param g
+	 *            the {@code SudokuGame} that changed
+	 * @param x
+	 *            the x value of the {@code Cell}, as passed to
+	 *            {@link SudokuGame#get(int, int)}
+	 * @param y
+	 *            the y value of the {@code Cell}, as passed to
+	 *            {@link SudokuGame#get(int, int)}
+	 * @param prev
+	 *            the value the {@code Cell} held before
+	 * @param post
+	 *            the value the {@code Cell} holds now
+	 */
+	void cellChanged(SudokuGame g, int x, int y, int prev, int post);
+
+	/**
+	 * Invoked when a row, column or box becomes complete or stops being
+	 * complete, or when the values duplicated within it change, which are the
+	 * changes that recolor every {@code Cell} of the {@code Region}. It is
+	 * invoked after the {@code cellChanged} of the change that caused it.
+	 *
+	 * @param g
+	 *            the {@code SudokuGame} that changed
+	 * @param r
+	 *            the {@code Region} whose state changed
+	 * @param complete
+	 *            whether or not the {@code Region} now holds every value
+	 *            exactly once
+	 * @param duplicates
+	 *            the candidate mask of the values now held by more than one
+	 *            {@code Cell} of the {@code Region}
+	 */
+	void regionStateChanged(SudokuGame g, Region r, boolean complete, int duplicates);
+}
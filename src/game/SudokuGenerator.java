@@ -0,0 +1,347 @@
+package game;
+
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * This class contains a collection of static methods that generate new
+ * puzzles locally. A random complete grid is filled in first, and then clues
+ * are dug out of it one {@code Symmetry} orbit at a time, keeping only the
+ * removals after which the puzzle still has exactly one solution, until the
+ * target number of clues is reached or no more clues can be removed. Orbits
+ * are never split, so the pattern of clues always has its {@code Symmetry}.
+ *
+ * @author Declan
+ *
+ */
+public class SudokuGenerator {
+
+	/**
+	 * The difficulty of a generated puzzle, expressed as the number of clues
+	 * to dig down to
+	 *
+	 * @author Declan
+	 *
+	 */
+	public enum Difficulty {
+
+		EASY(36), MEDIUM(30), HARD(26), EXPERT(22);
+
+		/**
+		 * The number of clues to dig down to
+		 */
+		private final int clues;
+
+		Difficulty(int c) {
+			clues = c;
+		}
+
+		/**
+		 * @return the number of clues a puzzle of this difficulty is dug down
+		 *         to
+		 */
+		public int getClues() {
+			return clues;
+		}
+	}
+
+	/**
+	 * The symmetry of the pattern of clues in a generated puzzle. Clues are
+	 * removed together with every other cell in the same orbit
+	 *
+	 * @author Declan
+	 *
+	 */
+	public enum Symmetry {
+
+		/**
+		 * No symmetry, so clues are removed one at a time
+		 */
+		NONE,
+
+		/**
+		 * The pattern is unchanged by a half turn of the board
+		 */
+		ROTATIONAL,
+
+		/**
+		 * The pattern is unchanged by a quarter turn of the board
+		 */
+		QUARTER_TURN,
+
+		/**
+		 * The pattern is unchanged by a reflection across the middle column
+		 */
+		MIRROR,
+
+		/**
+		 * The pattern is unchanged by a reflection across the main diagonal
+		 */
+		DIAGONAL;
+
+		/**
+		 * Fills an array with the row-major cells in the orbit of a cell,
+		 * which always includes the cell itself.
+		 *
+		 * @param i
+		 *            the row-major index of the cell
+		 * @param orbit
+		 *            the array of at least 4 elements to fill
+		 * @return the number of distinct cells in the orbit
+		 */
+		int orbit(int i, int[] orbit) {
+			int y = i / 9, x = i % 9;
+			int n = 0;
+			orbit[n++] = i;
+			switch (this) {
+			case ROTATIONAL:
+				n = add(orbit, n, (8 - y) * 9 + (8 - x));
+				break;
+			case QUARTER_TURN:
+				n = add(orbit, n, x * 9 + (8 - y));
+				n = add(orbit, n, (8 - y) * 9 + (8 - x));
+				n = add(orbit, n, (8 - x) * 9 + y);
+				break;
+			case MIRROR:
+				n = add(orbit, n, y * 9 + (8 - x));
+				break;
+			case DIAGONAL:
+				n = add(orbit, n, x * 9 + y);
+				break;
+			default:
+				break;
+			}
+			return n;
+		}
+
+		/**
+		 * Adds a cell to an orbit unless it is already in it.
+		 */
+		private static int add(int[] orbit, int n, int i) {
+			for (int j = 0; j < n; j++)
+				if (orbit[j] == i)
+					return n;
+			orbit[n] = i;
+			return n + 1;
+		}
+	}
+
+	/**
+	 * Generates a new {@code SudokuGame} whose clues cannot be edited.
+	 * 
+	 * @param name
+	 *            the {@code String} name of the new {@code SudokuGame}
+	 * @param d
+	 *            the {@code Difficulty} of the puzzle
+	 * @return a new {@code SudokuGame} with exactly one solution
+	 */
+	public static SudokuGame generateGame(String name, Difficulty d) {
+		int[] puzzle = generate(new SplittableRandom(), d.getClues(), Symmetry.ROTATIONAL);
+		SudokuGame g = new SudokuGame(name);
+		SudokuSolverToolkit.fromGrid(g, puzzle);
+		for (int i = 0; i < puzzle.length; i++)
+			if (puzzle[i] != 0)
+				g.get(i / 9, i % 9).setEditable(false);
+		return g;
+	}
+
+	/**
+	 * Generates a new puzzle with exactly one solution.
+	 * 
+	 * @param r
+	 *            the source of randomness
+	 * @param clues
+	 *            the number of clues to dig down to. Fewer clues take longer
+	 *            to reach, and below about 20 are usually not reachable at all,
+	 *            in which case the puzzle is dug as far as it can be. Since
+	 *            whole orbits are removed, a puzzle may keep up to three
+	 *            clues more than this when no smaller orbit fits the target
+	 * @param s
+	 *            the {@code Symmetry} of the pattern of clues
+	 * @return the row-major grid of the puzzle, with 0 representing a blank
+	 *         cell
+	 */
+	public static int[] generate(SplittableRandom r, int clues, Symmetry s) {
+		int[] grid = randomSolution(r);
+		dig(grid, r, clues, s);
+		return grid;
+	}
+
+	/**
+	 * Generates a stream of new puzzles in parallel, each with exactly one
+	 * solution. The puzzles are reproducible for the same seed, no matter how
+	 * many threads generate them.
+	 * 
+	 * @param count
+	 *            the number of puzzles to generate
+	 * @param seed
+	 *            the seed of the source of randomness
+	 * @param clues
+	 *            the number of clues to dig each puzzle down to
+	 * @param s
+	 *            the {@code Symmetry} of the pattern of clues
+	 * @return a parallel {@code Stream} of row-major puzzle grids
+	 * @see #generate(SplittableRandom, int, Symmetry)
+	 */
+	public static Stream<int[]> generateAll(long count, final long seed, final int clues, final Symmetry s) {
+		return LongStream.range(0, count).parallel().mapToObj(new LongFunction<int[]>() {
+
+			@Override
+			public int[] apply(long i) {
+				return generate(new SplittableRandom(seed ^ (i * 0x9E3779B97F4A7C15L)), clues, s);
+			}
+
+		});
+	}
+
+	/**
+	 * Fills a blank grid with a random complete solution.
+	 * 
+	 * @param r
+	 *            the source of randomness
+	 * @return the row-major grid of a complete solution
+	 */
+	static int[] randomSolution(SplittableRandom r) {
+		int[] grid = new int[81];
+
+		// The three boxes on the diagonal are independent of each other
+		for (int b = 0; b < 9; b += 4) {
+			int[] values = shuffled(r);
+			for (int k = 0; k < 9; k++)
+				grid[((b / 3) * 3 + k / 3) * 9 + (b % 3) * 3 + k % 3] = values[k];
+		}
+
+		CandidateGrid c = new CandidateGrid(grid);
+		fill(c, r);
+		c.copyInto(grid);
+		return grid;
+	}
+
+	/**
+	 * Fills every blank cell of a {@code CandidateGrid}, trying the candidates
+	 * of the most constrained cell in a random order.
+	 * 
+	 * @return whether or not the grid could be filled
+	 */
+	private static boolean fill(CandidateGrid c, SplittableRandom r) {
+		int i = c.mostConstrained();
+		if (i < 0)
+			return true;
+
+		int m = c.mark();
+		int poss = c.candidates(i);
+		while (poss != 0) {
+			int v = pick(poss, r);
+			poss &= ~Candidates.of(v);
+			c.place(i, v);
+			if (fill(c, r))
+				return true;
+			c.undo(m);
+		}
+		return false;
+	}
+
+	/**
+	 * Removes clues from a complete grid one orbit at a time in a random
+	 * order, keeping a removal only if the grid still has exactly one
+	 * solution. Orbits that would take the grid below the target are skipped,
+	 * so that the grid stops at the nearest count that whole orbits can reach.
+	 */
+	private static void dig(int[] grid, SplittableRandom r, int clues, Symmetry s) {
+		int[] order = new int[81];
+		for (int i = 0; i < 81; i++)
+			order[i] = i;
+		shuffle(order, r);
+
+		int[] orbit = new int[4];
+		int[] removed = new int[4];
+		int remaining = 81;
+		for (int i : order) {
+			if (remaining <= clues)
+				break;
+			if (grid[i] == 0)
+				continue;
+
+			// Keep the orbit whole rather than overshoot the target
+			int n = s.orbit(i, orbit);
+			if (remaining - n < clues)
+				continue;
+			for (int k = 0; k < n; k++) {
+				removed[k] = grid[orbit[k]];
+				grid[orbit[k]] = 0;
+			}
+
+			if (isUniqueWithout(grid, orbit, removed, n))
+				remaining -= n;
+			else
+				for (int k = 0; k < n; k++)
+					grid[orbit[k]] = removed[k];
+		}
+	}
+
+	/**
+	 * Determines whether or not a grid that had a unique solution still has
+	 * one after some of its clues were removed. That is the case exactly when
+	 * no solution exists in which one of the removed cells holds a value other
+	 * than the one that was removed from it.
+	 * 
+	 * @param grid
+	 *            the row-major grid with the clues already removed
+	 * @param cells
+	 *            the cells the clues were removed from
+	 * @param values
+	 *            the values that were removed
+	 * @param n
+	 *            the number of clues that were removed
+	 * @return whether or not the grid still has exactly one solution
+	 */
+	private static boolean isUniqueWithout(int[] grid, int[] cells, int[] values, int n) {
+		CandidateGrid c = new CandidateGrid(grid);
+		for (int k = 0; k < n; k++) {
+			int poss = c.candidates(cells[k]) & ~Candidates.of(values[k]);
+			for (int v = Candidates.first(poss); v != 0; v = Candidates.next(poss, v)) {
+				int m = c.mark();
+				c.place(cells[k], v);
+				boolean solvable = SudokuSolverToolkit.solve(c, true, null, 0, null);
+				c.undo(m);
+				if (solvable)
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return a random value from a non-empty candidate mask
+	 */
+	private static int pick(int mask, SplittableRandom r) {
+		int k = r.nextInt(Candidates.count(mask));
+		int v = Candidates.first(mask);
+		while (k-- > 0)
+			v = Candidates.next(mask, v);
+		return v;
+	}
+
+	/**
+	 * @return the values 1-9 in a random order
+	 */
+	private static int[] shuffled(SplittableRandom r) {
+		int[] values = { 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+		shuffle(values, r);
+		return values;
+	}
+
+	/**
+	 * Shuffles an array in place with the Fisher-Yates algorithm.
+	 */
+	private static void shuffle(int[] a, SplittableRandom r) {
+		for (int i = a.length - 1; i > 0; i--) {
+			int j = r.nextInt(i + 1);
+			int t = a[i];
+			a[i] = a[j];
+			a[j] = t;
+		}
+	}
+}
@@ -2,7 +2,13 @@ package game;
 
 import java.awt.Point;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * This class contains a collections of static methods that serve purpose
@@ -14,17 +20,220 @@ import java.util.Arrays;
 public class SudokuSolverToolkit {
 
 	/**
-	 * This method will solve a {@code SudokuGame} in place using a brute-force
-	 * method of checking and backtracking. If no solutions are found, it will
-	 * backtrack to the original state and return false.
+	 * The {@code SolverStrategy} used when none is specified
+	 */
+	public static final SolverStrategy DEFAULT_STRATEGY = SolverStrategy.DANCING_LINKS;
+
+	/**
+	 * The daemon threads that run the solves started by
+	 * {@link #solveAsync(SudokuGame, long, TimeUnit, SolveProgressListener)}
+	 */
+	private static final ExecutorService SOLVER_THREADS = Executors.newCachedThreadPool(new ThreadFactory() {
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "Sudoku Solver");
+			t.setDaemon(true);
+			return t;
+		}
+
+	});
+
+	/**
+	 * The cache consulted before every solve and count, or null if there is
+	 * none
+	 */
+	private static volatile SolutionCache cache;
+
+	/**
+	 * Puts a {@code SolutionCache} in front of the solves and counts of this
+	 * toolkit: {@link #solveGame(SudokuGame, SolverStrategy)},
+	 * {@link #solveGrid(int[], SolverStrategy)},
+	 * {@link #solveAsync(SudokuGame, long, TimeUnit, SolveProgressListener)}
+	 * and {@link #countSolutions(SudokuGame, SolverStrategy, int, TranspositionTable)}
+	 * look up the puzzle first, and record what they find. A puzzle with
+	 * more than one solution gets the solution cached first, whichever
+	 * {@code SolverStrategy} is asked for.
+	 * 
+	 * @param c
+	 *            the {@code SolutionCache} to use, or null to stop caching
+	 */
+	public static void setSolutionCache(SolutionCache c) {
+		cache = c;
+	}
+
+	/**
+	 * @return the {@code SolutionCache} in front of this toolkit, or null if
+	 *         there is none
+	 */
+	public static SolutionCache getSolutionCache() {
+		return cache;
+	}
+
+	/**
+	 * This method will solve a {@code SudokuGame} in place using the default
+	 * {@code SolverStrategy}. If no solutions are found, the
+	 * {@code SudokuGame} is left in its original state and false is returned.
 	 * 
 	 * @param g
 	 *            the {@code SudokuGame} to solve
 	 * @return returns whether or not the {@code SudokuGame} that was passed in
 	 *         had one or more final solutions
+	 * @see #DEFAULT_STRATEGY
 	 */
 	public static boolean solveGame(SudokuGame g) {
-		return solve(g, nextPoint(g));
+		return solveGame(g, DEFAULT_STRATEGY);
+	}
+
+	/**
+	 * This method will solve a {@code SudokuGame} in place using the specified
+	 * {@code SolverStrategy}. If no solutions are found, the
+	 * {@code SudokuGame} is left in its original state and false is returned.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to solve
+	 * @param s
+	 *            the {@code SolverStrategy} to search for a solution with
+	 * @return returns whether or not the {@code SudokuGame} that was passed in
+	 *         had one or more final solutions
+	 */
+	public static boolean solveGame(SudokuGame g, SolverStrategy s) {
+		return solveGame(g, s, null);
+	}
+
+	/**
+	 * This method will solve a {@code SudokuGame} in place using the specified
+	 * {@code SolverStrategy} like {@link #solveGame(SudokuGame, SolverStrategy)},
+	 * recording what the search did in a {@code SolveStatistics}.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to solve
+	 * @param s
+	 *            the {@code SolverStrategy} to search for a solution with
+	 * @param st
+	 *            the {@code SolveStatistics} to record the solve in, which is
+	 *            cleared first, or null to record nothing
+	 * @return returns whether or not the {@code SudokuGame} that was passed in
+	 *         had one or more final solutions
+	 */
+	public static boolean solveGame(SudokuGame g, SolverStrategy s, SolveStatistics st) {
+		st = SolveStatistics.start(st, s);
+		if (s == SolverStrategy.BACKTRACKING && cache == null) {
+			if (st != null)
+				st.searching();
+			boolean solved = solve(g, nextPoint(g), st);
+			if (st != null)
+				st.finish(solved ? 1 : 0, false);
+			return solved;
+		}
+
+		int[] grid = toGrid(g);
+		if (!solveGrid(grid, s, st))
+			return false;
+		fromGrid(g, grid);
+		return true;
+	}
+
+	/**
+	 * Solves a row-major grid of a Sudoku board of any supported size in
+	 * place using the specified {@code SolverStrategy}, without the need for a
+	 * {@code SudokuGame}. If no solutions are found, the grid is left in its
+	 * original state and false is returned.
+	 * 
+	 * @param grid
+	 *            the row-major grid of values to solve, 81 for a regular
+	 *            board, with 0 representing a blank cell
+	 * @param s
+	 *            the {@code SolverStrategy} to search for a solution with
+	 * @return whether or not the grid had one or more final solutions
+	 * @throws IllegalArgumentException
+	 *             if the grid is not the size of a supported board
+	 * @see SudokuGame#isValidSize(int)
+	 */
+	public static boolean solveGrid(int[] grid, SolverStrategy s) {
+		return solveGrid(grid, s, SolveStatistics.start(null, s));
+	}
+
+	/**
+	 * Solves a row-major grid in place like
+	 * {@link #solveGrid(int[], SolverStrategy)}, recording the solve in a
+	 * {@code SolveStatistics} that has already been started.
+	 * 
+	 * @param grid
+	 *            the row-major grid of values to solve
+	 * @param s
+	 *            the {@code SolverStrategy} to search for a solution with
+	 * @param st
+	 *            the {@code SolveStatistics} to record the solve in, or null
+	 * @return whether or not the grid had one or more final solutions
+	 */
+	private static boolean solveGrid(int[] grid, SolverStrategy s, SolveStatistics st) {
+		SolutionCache c = cache;
+		if (c == null) {
+			boolean solved = search(grid, s, st);
+			if (st != null)
+				st.finish(solved ? 1 : 0, false);
+			return solved;
+		}
+
+		int[] known = c.getSolution(grid);
+		if (known != null) {
+			if (st != null)
+				st.finish(known == SolutionCache.NO_SOLUTION ? 0 : 1, true);
+			if (known == SolutionCache.NO_SOLUTION)
+				return false;
+			System.arraycopy(known, 0, grid, 0, grid.length);
+			return true;
+		}
+		int[] puzzle = grid.clone();
+		boolean solved = search(grid, s, st);
+		c.putSolution(puzzle, solved ? grid : null);
+		if (st != null)
+			st.finish(solved ? 1 : 0, false);
+		return solved;
+	}
+
+	/**
+	 * Solves a row-major grid in place using the specified
+	 * {@code SolverStrategy}, without consulting the {@code SolutionCache}.
+	 * 
+	 * @param grid
+	 *            the row-major grid of values to solve
+	 * @param s
+	 *            the {@code SolverStrategy} to search for a solution with
+	 * @param st
+	 *            the {@code SolveStatistics} to record the search in, or null
+	 * @return whether or not the grid had one or more final solutions
+	 * @see #solveGrid(int[], SolverStrategy)
+	 */
+	private static boolean search(int[] grid, SolverStrategy s, SolveStatistics st) {
+		switch (s) {
+		case DANCING_LINKS:
+			DancingLinks d = new DancingLinks(grid);
+			if (st != null) {
+				d.setStatistics(st);
+				st.searching();
+			}
+			return d.solve();
+		case MINIMUM_REMAINING_VALUES:
+		case CONSTRAINT_PROPAGATION:
+			CandidateGrid c = new CandidateGrid(grid);
+			if (st != null)
+				st.searching();
+			if (!c.isConsistent() || !solve(c, s == SolverStrategy.CONSTRAINT_PROPAGATION, null, 0, st))
+				return false;
+			c.copyInto(grid);
+			return true;
+		default:
+			SudokuGame g = new SudokuGame("Grid", Topology.forCells(grid.length).size);
+			fromGrid(g, grid);
+			if (st != null)
+				st.searching();
+			if (!solve(g, nextPoint(g), st))
+				return false;
+			System.arraycopy(toGrid(g), 0, grid, 0, grid.length);
+			return true;
+		}
 	}
 
 	/**
@@ -34,20 +243,31 @@ public class SudokuSolverToolkit {
 	 * @param p
 	 *            the {@code Point} that the solver should start the tree of
 	 *            solutions from
+	 * @param st
+	 *            the {@code SolveStatistics} to record every step in, or null
 	 * @return returns whether or not the {@code SudokuGame} that was passed in
 	 *         had one or more final solutions
-	 * @see #solve(SudokuGame, Point)
+	 * @see #solve(SudokuGame, Point, SolveStatistics)
 	 */
-	private static boolean solve(SudokuGame g, Point p) {
+	private static boolean solve(SudokuGame g, Point p, SolveStatistics st) {
+		if (st != null) {
+			st.visit();
+			st.checkWon();
+		}
 		if (g.isWon())
 			return true;
 		else {
-			ArrayList<Integer> poss = calculatePossible(g, p);
-			Integer prev = 0;
+			int poss = candidateMask(g, p.x, p.y);
+			int prev = 0;
 
-			for (Integer i : poss) {
+			for (int i = Candidates.first(poss); i != 0; i = Candidates.next(poss, i)) {
 				prev = g.set(p.y, p.x, i);
-				if (!solve(g, nextPoint(g))) {
+				if (st != null)
+					st.guess();
+				boolean found = solve(g, nextPoint(g), st);
+				if (st != null)
+					st.retract(!found);
+				if (!found) {
 					g.set(p.y, p.x, prev);
 					continue;
 				} else
@@ -58,20 +278,312 @@ public class SudokuSolverToolkit {
 		}
 	}
 
+	/**
+	 * Starts solving a {@code SudokuGame} on a background thread and returns
+	 * immediately. The search works on a copy of the {@code SudokuGame} taken
+	 * when this method is called, so the game itself is never changed; the
+	 * solution can be applied with {@link #fill(SudokuGame, int[])} once the
+	 * returned {@code Future} completes.
+	 * <p>
+	 * The {@code Future} completes with the row-major solution grid, or with
+	 * null if the game has no solution. It completes exceptionally with a
+	 * {@code TimeoutException} if the time budget runs out first, and
+	 * cancelling it stops the search.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to solve
+	 * @param budget
+	 *            the amount of time the search may run for
+	 * @param unit
+	 *            the {@code TimeUnit} of the budget
+	 * @param l
+	 *            the listener to report progress to, or null
+	 * @return a {@code CompletableFuture} of the solution grid
+	 */
+	public static CompletableFuture<int[]> solveAsync(SudokuGame g, long budget, TimeUnit unit, SolveProgressListener l) {
+		final int[] grid = toGrid(g);
+		final CompletableFuture<int[]> future = new CompletableFuture<int[]>();
+		final SearchMonitor m = new SearchMonitor(future, unit.toNanos(budget), l);
+
+		final SolutionCache cached = cache;
+		if (cached != null) {
+			int[] known = cached.getSolution(grid);
+			if (known != null) {
+				future.complete(known == SolutionCache.NO_SOLUTION ? null : known);
+				return future;
+			}
+		}
+
+		SOLVER_THREADS.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				SolveStatistics st = SolveStatistics.start(null, SolverStrategy.CONSTRAINT_PROPAGATION);
+				try {
+					CandidateGrid c = new CandidateGrid(grid);
+					if (st != null)
+						st.searching();
+					if (!c.isConsistent() || !solve(c, true, m, 0, st)) {
+						if (st != null)
+							st.finish(0, false);
+						if (m.isExpired())
+							future.completeExceptionally(new TimeoutException("Solve ran out of time after " + m.getNodes() + " steps"));
+						else {
+							if (cached != null && !m.isStopped())
+								cached.putSolution(grid, null);
+							future.complete(null);
+						}
+						return;
+					}
+					int[] solution = grid.clone();
+					c.copyInto(solution);
+					if (st != null)
+						st.finish(1, false);
+					if (cached != null)
+						cached.putSolution(grid, solution);
+					future.complete(solution);
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			}
+
+		});
+		return future;
+	}
+
+	/**
+	 * Fills every blank {@code Cell} of a {@code SudokuGame} with the value at
+	 * the same location in a solution grid, as long as every {@code Cell} that
+	 * already has a value agrees with the solution. Otherwise the
+	 * {@code SudokuGame} is left unchanged.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to fill
+	 * @param solution
+	 *            the row-major solution grid
+	 * @return whether or not the solution was applied
+	 * @see #solveAsync(SudokuGame, long, TimeUnit, SolveProgressListener)
+	 */
+	public static boolean fill(SudokuGame g, int[] solution) {
+		int size = g.getSize();
+		if (solution.length != size * size)
+			return false;
+		for (int i = 0; i < solution.length; i++) {
+			int v = g.board.get(i);
+			if (v != 0 && v != solution[i])
+				return false;
+		}
+		fromGrid(g, solution);
+		return true;
+	}
+
 	/**
 	 * This method is used in determining whether or not there are multiple
-	 * solutions to a {@code SudokuGame}. It uses the same strategies as the
-	 * solve() method in this class, but doesn't edit the game in place. Instead
-	 * it tallies the number of completed {@code SudokuGames} in the tree of
+	 * solutions to a {@code SudokuGame}. It uses the default
+	 * {@code SolverStrategy}, but doesn't edit the game in place. Instead it
+	 * tallies the number of completed {@code SudokuGames} in the tree of
 	 * solutions.
 	 * 
 	 * @param g
 	 *            the {@code SudokuGame} to count solutions for
 	 * @return the number of solutions for the passed in {@code SudokuGame}
-	 * @see #numSolutions(SudokuGame, Point)
+	 * @see #DEFAULT_STRATEGY
 	 */
 	public static int countSolutions(SudokuGame g) {
-		return numSolutions(g, nextPoint(g));
+		return countSolutions(g, DEFAULT_STRATEGY, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Tallies the number of completed {@code SudokuGames} in the tree of
+	 * solutions using the default {@code SolverStrategy}, without editing the
+	 * game. The search stops as soon as the specified number of solutions has
+	 * been found, so asking whether there are 0, 1 or more than one solutions
+	 * only takes a limit of 2.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to count solutions for
+	 * @param limit
+	 *            the number of solutions to stop counting at
+	 * @return the number of solutions for the passed in {@code SudokuGame},
+	 *         or the limit if there are at least that many
+	 * @see #isUnique(SudokuGame)
+	 */
+	public static int countSolutions(SudokuGame g, int limit) {
+		return countSolutions(g, DEFAULT_STRATEGY, limit);
+	}
+
+	/**
+	 * Tallies the number of completed {@code SudokuGames} in the tree of
+	 * solutions using the specified {@code SolverStrategy}, without editing
+	 * the game.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to count solutions for
+	 * @param s
+	 *            the {@code SolverStrategy} to search for solutions with
+	 * @return the number of solutions for the passed in {@code SudokuGame}
+	 */
+	public static int countSolutions(SudokuGame g, SolverStrategy s) {
+		return countSolutions(g, s, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Tallies the number of completed {@code SudokuGames} in the tree of
+	 * solutions using the specified {@code SolverStrategy}, without editing
+	 * the game. The search stops as soon as the specified number of solutions
+	 * has been found.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to count solutions for
+	 * @param s
+	 *            the {@code SolverStrategy} to search for solutions with
+	 * @param limit
+	 *            the number of solutions to stop counting at
+	 * @return the number of solutions for the passed in {@code SudokuGame},
+	 *         or the limit if there are at least that many
+	 * @see #numSolutions(SudokuGame, Point, int)
+	 */
+	public static int countSolutions(SudokuGame g, SolverStrategy s, int limit) {
+		return countSolutions(g, s, limit, null);
+	}
+
+	/**
+	 * Tallies the number of completed {@code SudokuGames} in the tree of
+	 * solutions using the specified {@code SolverStrategy}, without editing
+	 * the game, and remembers the number of solutions below the positions it
+	 * searches in a {@code TranspositionTable}. Positions that an earlier
+	 * count with the same table already searched are not searched again. The
+	 * {@link SolverStrategy#DANCING_LINKS} search does not use the table.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to count solutions for
+	 * @param s
+	 *            the {@code SolverStrategy} to search for solutions with
+	 * @param limit
+	 *            the number of solutions to stop counting at
+	 * @param t
+	 *            the {@code TranspositionTable} to remember positions in, or
+	 *            null to count without one
+	 * @return the number of solutions for the passed in {@code SudokuGame},
+	 *         or the limit if there are at least that many
+	 */
+	public static int countSolutions(SudokuGame g, SolverStrategy s, int limit, TranspositionTable t) {
+		return countSolutions(g, s, limit, t, null);
+	}
+
+	/**
+	 * Tallies the number of solutions of a {@code SudokuGame} like
+	 * {@link #countSolutions(SudokuGame, SolverStrategy, int, TranspositionTable)},
+	 * recording what the search did in a {@code SolveStatistics}.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to count solutions for
+	 * @param s
+	 *            the {@code SolverStrategy} to search for solutions with
+	 * @param limit
+	 *            the number of solutions to stop counting at
+	 * @param t
+	 *            the {@code TranspositionTable} to remember positions in, or
+	 *            null to count without one
+	 * @param st
+	 *            the {@code SolveStatistics} to record the count in, which is
+	 *            cleared first, or null to record nothing
+	 * @return the number of solutions for the passed in {@code SudokuGame},
+	 *         or the limit if there are at least that many
+	 */
+	public static int countSolutions(SudokuGame g, SolverStrategy s, int limit, TranspositionTable t, SolveStatistics st) {
+		if (limit <= 0)
+			return 0;
+		st = SolveStatistics.start(st, s);
+		SolutionCache cached = cache;
+		int[] grid = toGrid(g);
+		if (cached != null) {
+			long known = cached.getCount(grid, limit);
+			if (known >= 0) {
+				if (st != null)
+					st.finish(known, true);
+				return (int) known;
+			}
+		}
+
+		int n;
+		switch (s) {
+		case DANCING_LINKS:
+			DancingLinks d = new DancingLinks(grid);
+			if (st != null) {
+				d.setStatistics(st);
+				st.searching();
+			}
+			n = d.count(limit);
+			break;
+		case MINIMUM_REMAINING_VALUES:
+		case CONSTRAINT_PROPAGATION:
+			CandidateGrid c = new CandidateGrid(grid);
+			if (st != null)
+				st.searching();
+			n = c.isConsistent() ? (int) numSolutions(c, s == SolverStrategy.CONSTRAINT_PROPAGATION, limit, t, st) : 0;
+			break;
+		default:
+			if (st != null)
+				st.searching();
+			n = numSolutions(g, nextPoint(g), limit, t, st);
+		}
+		if (cached != null)
+			cached.putCount(grid, n, limit);
+		if (st != null)
+			st.finish(n, false);
+		return n;
+	}
+
+	/**
+	 * Determines whether or not a {@code SudokuGame} has exactly one solution,
+	 * stopping the search as soon as a second solution is found.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to check
+	 * @return whether or not the {@code SudokuGame} has exactly one solution
+	 */
+	public static boolean isUnique(SudokuGame g) {
+		return countSolutions(g, 2) == 1;
+	}
+
+	/**
+	 * Tallies the number of completed {@code SudokuGames} in the tree of
+	 * solutions on every worker of the common {@code ForkJoinPool}, without
+	 * editing the game.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to count solutions for
+	 * @return the number of solutions for the passed in {@code SudokuGame}
+	 * @see #countSolutionsInParallel(SudokuGame, ForkJoinPool, long)
+	 */
+	public static long countSolutionsInParallel(SudokuGame g) {
+		return countSolutionsInParallel(g, ForkJoinPool.commonPool(), Long.MAX_VALUE);
+	}
+
+	/**
+	 * Tallies the number of completed {@code SudokuGames} in the tree of
+	 * solutions on every worker of the specified {@code ForkJoinPool}, without
+	 * editing the game. The top levels of the tree are split into subtasks
+	 * that each search their own copy of the board, and idle workers steal
+	 * subtasks from busy ones. Every subtask stops as soon as the specified
+	 * number of solutions has been found between them.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to count solutions for
+	 * @param pool
+	 *            the {@code ForkJoinPool} to count solutions on
+	 * @param limit
+	 *            the number of solutions to stop counting at
+	 * @return the number of solutions for the passed in {@code SudokuGame},
+	 *         or the limit if there are at least that many
+	 * @see SolutionCountTask
+	 */
+	public static long countSolutionsInParallel(SudokuGame g, ForkJoinPool pool, long limit) {
+		CandidateGrid c = new CandidateGrid(toGrid(g));
+		if (!c.isConsistent() || limit <= 0)
+			return 0;
+		return Math.min(pool.invoke(new SolutionCountTask(c, limit)), limit);
 	}
 
 	/**
@@ -81,27 +593,185 @@ public class SudokuSolverToolkit {
 	 * @param p
 	 *            the {@code Point} that the solver should start the tree of
 	 *            solutions from
-	 * @return the number of solutions for the passed in {@code SudokuGame}
+	 * @param limit
+	 *            the number of solutions to stop counting at
+	 * @param t
+	 *            the {@code TranspositionTable} to remember positions in, or
+	 *            null
+	 * @param st
+	 *            the {@code SolveStatistics} to record every step in, or null
+	 * @return the number of solutions for the passed in {@code SudokuGame},
+	 *         up to the limit
 	 */
-	private static int numSolutions(SudokuGame g, Point p) {
+	private static int numSolutions(SudokuGame g, Point p, int limit, TranspositionTable t, SolveStatistics st) {
+		if (st != null) {
+			st.visit();
+			st.checkWon();
+		}
 		if (g.isWon())
 			return 1;
 		else {
-			ArrayList<Integer> poss = calculatePossible(g, p);
-			Integer prev = 0;
-			Integer sum = 0;
+			long key = g.getZobristHash();
+			if (t != null) {
+				long known = t.probe(key, limit);
+				if (known >= 0)
+					return (int) known;
+			}
+
+			int poss = candidateMask(g, p.x, p.y);
+			int prev = 0;
+			int sum = 0;
 
-			for (Integer i : poss) {
+			for (int i = Candidates.first(poss); i != 0 && sum < limit; i = Candidates.next(poss, i)) {
 				prev = g.set(p.y, p.x, i);
-				int num = numSolutions(g, nextPoint(g));
+				if (st != null)
+					st.guess();
+				int num = numSolutions(g, nextPoint(g), limit - sum, t, st);
+				if (st != null)
+					st.retract(num == 0);
 				g.set(p.y, p.x, prev);
 				sum += num;
 			}
 
+			if (t != null)
+				t.store(key, sum, limit, g.getSize() * g.getSize() - g.getFilledCount());
 			return sum;
 		}
 	}
 
+	/**
+	 * Searches a {@code CandidateGrid} for a solution, always branching on the
+	 * blank cell with the fewest candidates. The grid is left holding the
+	 * solution if one is found, and is otherwise restored to its original
+	 * state.
+	 * 
+	 * @param c
+	 *            the {@code CandidateGrid} to solve
+	 * @param propagate
+	 *            whether or not to fill naked and hidden singles before
+	 *            branching at every step of the search
+	 * @param m
+	 *            the {@code SearchMonitor} to report every step to, or null
+	 * @param depth
+	 *            the number of guesses this step is nested in
+	 * @param st
+	 *            the {@code SolveStatistics} to record every step in, or null
+	 * @return whether or not the grid had one or more final solutions. Also
+	 *         false if the {@code SearchMonitor} stopped the search
+	 * @see CandidateGrid#propagate()
+	 */
+	static boolean solve(CandidateGrid c, boolean propagate, SearchMonitor m, int depth, SolveStatistics st) {
+		if (m != null && !m.visit(depth))
+			return false;
+		if (st != null)
+			st.visit();
+
+		int mark = c.mark();
+		if (propagate && !c.propagate()) {
+			c.undo(mark);
+			return false;
+		}
+
+		int i = c.mostConstrained();
+		if (i < 0)
+			return true;
+
+		int poss = c.candidates(i);
+		for (int v = Candidates.first(poss); v != 0; v = Candidates.next(poss, v)) {
+			c.place(i, v);
+			if (st != null)
+				st.guess();
+			boolean found = solve(c, propagate, m, depth + 1, st);
+			if (st != null)
+				st.retract(!found);
+			if (found)
+				return true;
+			c.undo(mark);
+			if (m != null && m.isStopped())
+				return false;
+		}
+		return false;
+	}
+
+	/**
+	 * Tallies the number of solutions of a {@code CandidateGrid}, always
+	 * branching on the blank cell with the fewest candidates. The grid is
+	 * restored to its original state afterwards.
+	 * 
+	 * @param c
+	 *            the {@code CandidateGrid} to count solutions for
+	 * @param propagate
+	 *            whether or not to fill naked and hidden singles before
+	 *            branching at every step of the search
+	 * @param limit
+	 *            the number of solutions to stop counting at
+	 * @return the number of solutions for the grid, up to the limit
+	 * @see CandidateGrid#propagate()
+	 */
+	static long numSolutions(CandidateGrid c, boolean propagate, long limit) {
+		return numSolutions(c, propagate, limit, null, null);
+	}
+
+	/**
+	 * Tallies the number of solutions of a {@code CandidateGrid} like
+	 * {@link #numSolutions(CandidateGrid, boolean, long)}, looking up every
+	 * position that has blank cells left in a {@code TranspositionTable}
+	 * before searching it, and recording the result afterwards.
+	 * 
+	 * @param c
+	 *            the {@code CandidateGrid} to count solutions for
+	 * @param propagate
+	 *            whether or not to fill naked and hidden singles before
+	 *            branching at every step of the search
+	 * @param limit
+	 *            the number of solutions to stop counting at
+	 * @param t
+	 *            the {@code TranspositionTable} to remember positions in, or
+	 *            null
+	 * @param st
+	 *            the {@code SolveStatistics} to record every step in, or null
+	 * @return the number of solutions for the grid, up to the limit
+	 */
+	static long numSolutions(CandidateGrid c, boolean propagate, long limit, TranspositionTable t, SolveStatistics st) {
+		if (limit <= 0)
+			return 0;
+		if (st != null)
+			st.visit();
+		long key = c.hash();
+		int blanks = c.blanks();
+		if (t != null && blanks > 0) {
+			long known = t.probe(key, limit);
+			if (known >= 0)
+				return known;
+		}
+
+		int m = c.mark();
+		long sum = 0;
+		if (!propagate || c.propagate()) {
+			int i = c.mostConstrained();
+			if (i < 0)
+				sum = 1;
+			else {
+				int poss = c.candidates(i);
+				for (int v = Candidates.first(poss); v != 0 && sum < limit; v = Candidates.next(poss, v)) {
+					c.place(i, v);
+					if (st != null)
+						st.guess();
+					long n = numSolutions(c, propagate, limit - sum, t, st);
+					if (st != null)
+						st.retract(n == 0);
+					sum += n;
+					c.undo(m);
+				}
+			}
+		}
+		c.undo(m);
+
+		if (t != null && blanks > 0)
+			t.store(key, sum, limit, blanks);
+		return sum;
+	}
+
 	/**
 	 * For the given {@code SudokuGame} determines the next {@code Point} that
 	 * doesn't contain any significant value.
@@ -118,6 +788,35 @@ public class SudokuSolverToolkit {
 		return null;
 	}
 
+	/**
+	 * Copies the contents of every {@code Cell} of a {@code SudokuGame} into a
+	 * row-major grid.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to copy
+	 * @return the row-major grid of {@code Cell} contents, with 0 representing
+	 *         a blank {@code Cell}
+	 */
+	static int[] toGrid(SudokuGame g) {
+		return g.board.toGrid();
+	}
+
+	/**
+	 * Fills every blank {@code Cell} of a {@code SudokuGame} with the value at
+	 * the same location in a row-major grid.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to fill
+	 * @param grid
+	 *            the row-major grid to copy the values from
+	 */
+	static void fromGrid(SudokuGame g, int[] grid) {
+		int size = g.getSize();
+		for (int i = 0; i < grid.length; i++)
+			if (g.board.get(i) == 0)
+				g.set(i / size, i % size, grid[i]);
+	}
+
 	/**
 	 * This method determines the list of possible values for a {@code Cell}
 	 * within a {@code SudokuGame} by looking at the {@code Regions} that the
@@ -132,22 +831,33 @@ public class SudokuSolverToolkit {
 	 * @return an {@code ArrayList} of type {@code Integer} containing all of
 	 *         the possible values for the {@code Cell} designated by
 	 *         {@code Point} onbject
+	 * @see #candidateMask(SudokuGame, int, int)
 	 */
 	public static ArrayList<Integer> calculatePossible(SudokuGame g, Point p) {
-		ArrayList<Integer> res = new ArrayList<Integer>();
-		res.addAll(Arrays.asList(new Integer[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 }));
-		Cell sel = g.cells[p.y][p.x];
-		if (sel.getContent() != 0) {
-			res.clear();
-			return res;
-		}
-		for (Region r : sel.regions) {
-			for (Cell c : r.getCells()) {
-				if (res.contains(c.getContent()) && c.getContent() != 0)
-					res.remove(res.indexOf(c.getContent()));
-			}
-		}
-		return res;
+		return Candidates.toList(candidateMask(g, p.x, p.y));
+	}
+
+	/**
+	 * This method determines the possible values for a {@code Cell} within a
+	 * {@code SudokuGame} in constant time, from the values the game already
+	 * counts in its row, column and box, without allocating any objects.
+	 * 
+	 * @param g
+	 *            the {@code SudokuGame} to look in to find the possibilites
+	 * @param x
+	 *            the x coordinate of the {@code Cell} within the
+	 *            {@code SudokuGame}
+	 * @param y
+	 *            the y coordinate of the {@code Cell} within the
+	 *            {@code SudokuGame}
+	 * @return a candidate mask of all the possible values for the
+	 *         {@code Cell}, or an empty mask if the {@code Cell} already has a
+	 *         value
+	 * @see Candidates
+	 * @see SudokuGame#getCandidates(int, int)
+	 */
+	public static int candidateMask(SudokuGame g, int x, int y) {
+		return g.getCandidates(y, x);
 	}
 
 }
@@ -0,0 +1,104 @@
+package game;
+
+/**
+ * The human solving techniques that the {@code LogicalSolver} knows, in the
+ * order it tries them. Every technique has a weight that is added to the
+ * difficulty score of a puzzle each time it is applied.
+ *
+ * @author Declan
+ *
+ */
+public enum Technique {
+
+	/**
+	 * A value that has only one blank {@code Cell} left in a row, column or box
+	 */
+	HIDDEN_SINGLE("Hidden Single", 1),
+
+	/**
+	 * A blank {@code Cell} that has only one candidate left
+	 */
+	NAKED_SINGLE("Naked Single", 2),
+
+	/**
+	 * The candidates of a value in a box all lie in one row or column, so the
+	 * value is removed from the rest of that row or column
+	 */
+	POINTING("Pointing", 5),
+
+	/**
+	 * The candidates of a value in a row or column all lie in one box, so the
+	 * value is removed from the rest of that box
+	 */
+	BOX_LINE_REDUCTION("Box/Line Reduction", 6),
+
+	/**
+	 * Two {@code Cells} of a region whose candidates are the same two values,
+	 * which are removed from the rest of the region
+	 */
+	NAKED_PAIR("Naked Pair", 8),
+
+	/**
+	 * Two values that are only candidates in the same two {@code Cells} of a
+	 * region, from which every other candidate is removed
+	 */
+	HIDDEN_PAIR("Hidden Pair", 10),
+
+	/**
+	 * Three {@code Cells} of a region whose candidates are among the same
+	 * three values, which are removed from the rest of the region
+	 */
+	NAKED_TRIPLE("Naked Triple", 12),
+
+	/**
+	 * Three values that are only candidates in the same three {@code Cells}
+	 * of a region, from which every other candidate is removed
+	 */
+	HIDDEN_TRIPLE("Hidden Triple", 14),
+
+	/**
+	 * The candidates of a value in two rows lie in the same two columns, or
+	 * the other way around, so the value is removed from the rest of those
+	 * columns
+	 */
+	X_WING("X-Wing", 20),
+
+	/**
+	 * A pivot {@code Cell} with candidates xy that sees one {@code Cell} with
+	 * xz and another with yz, so z is removed from every {@code Cell} that
+	 * sees both of them
+	 */
+	XY_WING("XY-Wing", 25),
+
+	/**
+	 * The three line version of {@link #X_WING}
+	 */
+	SWORDFISH("Swordfish", 30);
+
+	/**
+	 * The name of the technique as it is shown to the user
+	 */
+	private final String name;
+
+	/**
+	 * The score added each time the technique is applied
+	 */
+	private final int weight;
+
+	Technique(String n, int w) {
+		name = n;
+		weight = w;
+	}
+
+	/**
+	 * @return the score added each time the technique is applied
+	 */
+	public int getWeight() {
+		return weight;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,119 @@
+package game;
+
+/**
+ * The shape of a Sudoku board of one size: the row, column and box of every
+ * cell, the distinct peers of every cell, and the cells of every row, column
+ * and box. The tables only depend on the size of the board, so one immutable
+ * instance is built per size and shared by every grid of that size.
+ *
+ * @author Declan
+ *
+ */
+final class Topology {
+
+	/**
+	 * The shared instance for every supported board size, indexed by the side
+	 * length of a box
+	 */
+	private static final Topology[] BY_BOX = new Topology[6];
+
+	static {
+		for (int b = 2; b < BY_BOX.length; b++)
+			BY_BOX[b] = new Topology(b);
+	}
+
+	/**
+	 * The side length of the board
+	 */
+	final int size;
+
+	/**
+	 * The side length of one box
+	 */
+	final int box;
+
+	/**
+	 * The number of cells on the board
+	 */
+	final int cells;
+
+	/**
+	 * The row, column and box index of every cell
+	 */
+	final int[] row, col, boxOf;
+
+	/**
+	 * The distinct cells that share a row, column or box with every cell
+	 */
+	final int[][] peers;
+
+	/**
+	 * The cells of every row, column and box, in the same order as the
+	 * {@code Regions} of a {@code SudokuGame}
+	 */
+	final int[][] units;
+
+	/**
+	 * Constructs and initializes the tables of a board with the specified box
+	 * side length
+	 *
+	 * @param b
+	 *            the side length of one box
+	 */
+	private Topology(int b) {
+		box = b;
+		size = b * b;
+		cells = size * size;
+		row = new int[cells];
+		col = new int[cells];
+		boxOf = new int[cells];
+		peers = new int[cells][3 * size - 2 * b - 1];
+		units = new int[3 * size][size];
+
+		for (int i = 0; i < cells; i++) {
+			row[i] = i / size;
+			col[i] = i % size;
+			boxOf[i] = (row[i] / b) * b + col[i] / b;
+		}
+		for (int i = 0; i < cells; i++) {
+			int k = 0;
+			for (int j = 0; j < cells; j++)
+				if (j != i && (row[i] == row[j] || col[i] == col[j] || boxOf[i] == boxOf[j]))
+					peers[i][k++] = j;
+		}
+		int[] filled = new int[3 * size];
+		for (int i = 0; i < cells; i++) {
+			units[row[i]][filled[row[i]]++] = i;
+			units[size + col[i]][filled[size + col[i]]++] = i;
+			units[2 * size + boxOf[i]][filled[2 * size + boxOf[i]]++] = i;
+		}
+	}
+
+	/**
+	 * @param s
+	 *            the side length of the board
+	 * @return the shared {@code Topology} of a board of the specified size
+	 * @throws IllegalArgumentException
+	 *             if the size is not a supported board size
+	 * @see SudokuGame#isValidSize(int)
+	 */
+	static Topology of(int s) {
+		if (!SudokuGame.isValidSize(s))
+			throw new IllegalArgumentException("Invalid board size " + s);
+		return BY_BOX[(int) Math.round(Math.sqrt(s))];
+	}
+
+	/**
+	 * @param length
+	 *            the number of cells of a row-major grid
+	 * @return the shared {@code Topology} of a board with that many cells
+	 * @throws IllegalArgumentException
+	 *             if no supported board size has that many cells
+	 */
+	static Topology forCells(int length) {
+		int s = (int) Math.round(Math.sqrt(length));
+		if (s * s != length)
+			throw new IllegalArgumentException("Invalid number of cells " + length);
+		return of(s);
+	}
+}
@@ -0,0 +1,246 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * A bounded table of the number of solutions below positions that a solution
+ * count has already searched, keyed by their Zobrist hash. Passing the same
+ * table to several counts lets each of them skip every subtree that an
+ * earlier one has already counted, which is what happens when related
+ * puzzles are checked one after another, such as while a puzzle is being
+ * edited or while clues are being removed from it.
+ * <p>
+ * The table is a fixed array of slots allocated up front, so it never uses
+ * more memory than it was given. Every position maps to one slot, and the
+ * {@code EvictionPolicy} decides which entry keeps a slot that two positions
+ * map to. A {@code TranspositionTable} is not thread-safe, and should only be
+ * used by one count at a time.
+ *
+ * @author Declan
+ *
+ * @see SudokuSolverToolkit#countSolutions(SudokuGame, SolverStrategy, int,
+ *      TranspositionTable)
+ */
+public final class TranspositionTable {
+
+	/**
+	 * The ways a {@code TranspositionTable} can decide which entry keeps a
+	 * slot that two positions map to
+	 *
+	 * @author Declan
+	 *
+	 */
+	public enum EvictionPolicy {
+		/**
+		 * The newest entry always replaces the entry already in the slot
+		 */
+		ALWAYS_REPLACE,
+		/**
+		 * The entry with more blank cells keeps the slot, because its subtree
+		 * is usually far more expensive to count again
+		 */
+		PREFER_LARGER_SUBTREE
+	}
+
+	/**
+	 * The number of bytes used by one slot of the table: the 64-bit hash, the
+	 * count, and the number of blank cells
+	 */
+	public static final int BYTES_PER_ENTRY = 8 + 8 + 4;
+
+	/**
+	 * The memory cap of a {@code TranspositionTable} made with the default
+	 * constructor, 16 MB
+	 */
+	public static final long DEFAULT_MAX_BYTES = 16L << 20;
+
+	/**
+	 * The Zobrist hash of the position in every slot
+	 */
+	private final long[] keys;
+
+	/**
+	 * The number of solutions of the position in every slot, shifted left by
+	 * one, with the lowest bit set when the number is exact rather than only a
+	 * lower bound reached at the limit of a count
+	 */
+	private final long[] counts;
+
+	/**
+	 * The number of blank cells of the position in every slot, or 0 if the
+	 * slot is empty
+	 */
+	private final int[] blanks;
+
+	/**
+	 * The mask of the index of the slot a hash maps to
+	 */
+	private final int mask;
+
+	/**
+	 * The policy deciding which entry keeps a slot that two positions map to
+	 */
+	private final EvictionPolicy policy;
+
+	/**
+	 * The number of lookups that found a usable entry, the number that did
+	 * not, and the number of entries that replaced a different position
+	 */
+	private long hits, misses, evictions;
+
+	/**
+	 * Constructs and initializes a {@code TranspositionTable} using at most
+	 * {@link #DEFAULT_MAX_BYTES}, which prefers to keep larger subtrees
+	 */
+	public TranspositionTable() {
+		this(DEFAULT_MAX_BYTES, EvictionPolicy.PREFER_LARGER_SUBTREE);
+	}
+
+	/**
+	 * Constructs and initializes a {@code TranspositionTable} with the largest
+	 * power of two of slots that fits in the specified number of bytes
+	 *
+	 * @param maxBytes
+	 *            the memory cap of the table
+	 * @param p
+	 *            the policy deciding which entry keeps a slot that two
+	 *            positions map to
+	 * @throws IllegalArgumentException
+	 *             if not even one slot fits in the memory cap, or the policy
+	 *             is null
+	 */
+	public TranspositionTable(long maxBytes, EvictionPolicy p) {
+		if (maxBytes < BYTES_PER_ENTRY)
+			throw new IllegalArgumentException("Memory cap too small: " + maxBytes);
+		if (p == null)
+			throw new IllegalArgumentException("No eviction policy");
+		int capacity = Integer.highestOneBit((int) Math.min(maxBytes / BYTES_PER_ENTRY, 1 << 30));
+		keys = new long[capacity];
+		counts = new long[capacity];
+		blanks = new int[capacity];
+		mask = capacity - 1;
+		policy = p;
+	}
+
+	/**
+	 * Looks up the number of solutions below a position.
+	 *
+	 * @param key
+	 *            the Zobrist hash of the position
+	 * @param limit
+	 *            the number of solutions the count is going to stop at
+	 * @return the number of solutions of the position up to the limit, or -1
+	 *         if the table does not know it
+	 */
+	long probe(long key, long limit) {
+		int i = slot(key);
+		if (blanks[i] != 0 && keys[i] == key) {
+			long n = counts[i] >>> 1;
+			if ((counts[i] & 1) != 0 || n >= limit) {
+				hits++;
+				return Math.min(n, limit);
+			}
+		}
+		misses++;
+		return -1;
+	}
+
+	/**
+	 * Records the number of solutions below a position.
+	 *
+	 * @param key
+	 *            the Zobrist hash of the position
+	 * @param n
+	 *            the number of solutions found below the position
+	 * @param limit
+	 *            the limit the count stopped at, so that a number that
+	 *            reached it is recorded as a lower bound
+	 * @param b
+	 *            the number of blank cells of the position, at least 1
+	 */
+	void store(long key, long n, long limit, int b) {
+		int i = slot(key);
+		if (blanks[i] != 0 && keys[i] != key) {
+			if (policy == EvictionPolicy.PREFER_LARGER_SUBTREE && blanks[i] > b)
+				return;
+			evictions++;
+		}
+		keys[i] = key;
+		counts[i] = n << 1 | (n < limit ? 1 : 0);
+		blanks[i] = b;
+	}
+
+	/**
+	 * @return the index of the slot a hash maps to, mixing the high bits of
+	 *         the hash into the low bits that pick the slot
+	 */
+	private int slot(long key) {
+		return (int) (key ^ key >>> 32) & mask;
+	}
+
+	/**
+	 * Removes every entry and resets the counters
+	 */
+	public void clear() {
+		Arrays.fill(blanks, 0);
+		hits = misses = evictions = 0;
+	}
+
+	/**
+	 * @return the number of slots of the table
+	 */
+	public int getCapacity() {
+		return keys.length;
+	}
+
+	/**
+	 * @return the number of bytes used by the slots of the table
+	 */
+	public long getMemoryUsage() {
+		return (long) keys.length * BYTES_PER_ENTRY;
+	}
+
+	/**
+	 * @return the policy deciding which entry keeps a slot that two positions
+	 *         map to
+	 */
+	public EvictionPolicy getEvictionPolicy() {
+		return policy;
+	}
+
+	/**
+	 * @return the number of lookups that found a usable entry
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of lookups that did not find a usable entry
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the number of entries that replaced a different position
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return the fraction of lookups that found a usable entry, or 0 if
+	 *         there have been none
+	 */
+	public double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d slots, %d hits, %d misses (%.1f%%), %d evictions", keys.length, hits, misses,
+				100 * getHitRate(), evictions);
+	}
+}
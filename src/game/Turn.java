@@ -39,9 +39,24 @@ public class Turn implements Serializable {
 	 *            the previous value of the {@code Cell}
 	 */
 	public Turn(Cell c, int prev) {
+		this(c, prev, c.getContent());
+	}
+
+	/**
+	 * Constructs and initializes a {@code Turn} object from a change that was
+	 * saved, when the {@code Cell} may no longer hold the value it changed to.
+	 * 
+	 * @param c
+	 *            the {@code Cell} that was changed
+	 * @param prev
+	 *            the previous value of the {@code Cell}
+	 * @param post
+	 *            the value of the {@code Cell} after it changed
+	 */
+	Turn(Cell c, int prev, int post) {
 		changed = c;
 		prevValue = prev;
-		postValue = c.getContent();
+		postValue = post;
 	}
 
 	/**
@@ -51,6 +66,20 @@ public class Turn implements Serializable {
 		return changed;
 	}
 
+	/**
+	 * @return the previous value of the changed {@code Cell}
+	 */
+	public int getPrevValue() {
+		return prevValue;
+	}
+
+	/**
+	 * @return the value of the {@code Cell} after it changed
+	 */
+	public int getPostValue() {
+		return postValue;
+	}
+
 	/**
 	 * Undoes the change
 	 */
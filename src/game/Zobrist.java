@@ -0,0 +1,79 @@
+package game;
+
+import java.util.SplittableRandom;
+
+/**
+ * The random keys of the Zobrist hash of a Sudoku board. Every pair of a cell
+ * and a value has its own 64-bit key, and the hash of a board is the XOR of
+ * the keys of every value on it, so placing or removing a value updates the
+ * hash with a single XOR instead of rehashing the whole board. The hash also
+ * starts from a key of the size of the board, so that boards of different
+ * sizes never share a hash just because they hold the same values in the
+ * same row-major cells, as every blank board would otherwise.
+ * <p>
+ * The keys are drawn from a fixed seed, so the hash of a position is the same
+ * in every run.
+ *
+ * @author Declan
+ *
+ */
+final class Zobrist {
+
+	/**
+	 * The key of every value of every cell, indexed by the row-major index of
+	 * the cell times {@link SudokuGame#MAX_SIZE}, plus the value minus one.
+	 * The keys are laid out for the largest board, and boards of every size
+	 * use the first of them
+	 */
+	private static final long[] KEYS = new long[SudokuGame.MAX_SIZE * SudokuGame.MAX_SIZE * SudokuGame.MAX_SIZE];
+
+	/**
+	 * The key of every size of board, indexed by the side length
+	 */
+	private static final long[] SIZE_KEYS = new long[SudokuGame.MAX_SIZE + 1];
+
+	static {
+		SplittableRandom r = new SplittableRandom(0x5DEECE66DL);
+		for (int i = 0; i < KEYS.length; i++)
+			KEYS[i] = r.nextLong();
+		for (int s = 0; s < SIZE_KEYS.length; s++)
+			SIZE_KEYS[s] = r.nextLong();
+	}
+
+	private Zobrist() {
+	}
+
+	/**
+	 * @param i
+	 *            the row-major index of the cell
+	 * @param v
+	 *            the value of the cell
+	 * @return the key of the value in the cell, or 0 if the value is 0, so
+	 *         that blank cells do not change the hash
+	 */
+	static long key(int i, int v) {
+		return v == 0 ? 0L : KEYS[i * SudokuGame.MAX_SIZE + v - 1];
+	}
+
+	/**
+	 * @param s
+	 *            the side length of the board
+	 * @return the Zobrist hash of a blank board of the size, which every
+	 *         other hash of a board of that size starts from
+	 */
+	static long blank(int s) {
+		return SIZE_KEYS[s];
+	}
+
+	/**
+	 * @param grid
+	 *            a row-major grid of values, with 0 representing a blank cell
+	 * @return the Zobrist hash of the grid
+	 */
+	static long hash(int[] grid) {
+		long h = blank((int) Math.round(Math.sqrt(grid.length)));
+		for (int i = 0; i < grid.length; i++)
+			h ^= key(i, grid[i]);
+		return h;
+	}
+}
@@ -0,0 +1,418 @@
+package gui;
+
+import game.SolutionCache;
+import game.SolverStrategy;
+import game.SudokuGame;
+import game.SudokuSolverToolkit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The headless counterpart to {@code SudokuGameFrame}. It reads one puzzle per
+ * line from a file or from standard input, 81 characters for a regular board or
+ * 256 and 625 for 16x16 and 25x25 boards, where the digits 1-9 and the letters
+ * standing for larger values are givens and {@code 0} or {@code .} are blank
+ * cells, solves them on a pool of worker threads, and writes one line per
+ * puzzle to standard output in the same order as the input. Throughput and
+ * latency statistics are written to standard error at the end.
+ * <p>
+ * Only a bounded window of puzzles is in flight at any time, so files of any
+ * length are solved in constant memory. With {@code -c}, solutions are kept
+ * in a {@code SolutionCache} saved to the given file between runs, so running
+ * over the same puzzles again only solves the ones that are new.
+ *
+ * <pre>
+ * java -cp SudokuProject.jar gui.SudokuBatchSolver [-t threads] [-s strategy] [-c cachefile] [file]
+ * </pre>
+ *
+ * @author Declan
+ *
+ */
+public class SudokuBatchSolver {
+
+	/**
+	 * The number of puzzles allowed in flight for every worker thread
+	 */
+	private static final int windowPerThread = 64;
+
+	/**
+	 * The suffix written after an input line that could not be solved
+	 */
+	private static final String unsolvable = " # no solution";
+
+	/**
+	 * The suffix written after an input line that is not a puzzle
+	 */
+	private static final String invalid = " # invalid puzzle";
+
+	/**
+	 * Runs the batch solver
+	 *
+	 * @param args
+	 *            the command line arguments
+	 */
+	public static void main(String[] args) {
+		int threads = Runtime.getRuntime().availableProcessors();
+		SolverStrategy strategy = SudokuSolverToolkit.DEFAULT_STRATEGY;
+		String file = null, cacheFile = null;
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-t"))
+					threads = Integer.parseInt(args[++i]);
+				else if (args[i].equals("-s"))
+					strategy = SolverStrategy.valueOf(args[++i].toUpperCase(Locale.ROOT));
+				else if (args[i].equals("-c"))
+					cacheFile = args[++i];
+				else if ((args[i].startsWith("-") && !args[i].equals("-")) || file != null)
+					throw new IllegalArgumentException(args[i]);
+				else
+					file = args[i];
+			}
+			if (threads < 1)
+				throw new IllegalArgumentException("-t " + threads);
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			System.err.println("Usage: SudokuBatchSolver [-t threads] [-s strategy] [-c cachefile] [file]");
+			System.err.println("  -t  the number of worker threads (default: one per processor)");
+			System.err.println("  -s  one of BACKTRACKING, MINIMUM_REMAINING_VALUES, CONSTRAINT_PROPAGATION, "
+					+ "DANCING_LINKS");
+			System.err.println("  -c  a file to keep solutions in between runs");
+			System.err.println("  Puzzles are read from standard input if no file or - is given");
+			System.exit(2);
+		}
+
+		SolutionCache cache = null;
+		if (cacheFile != null) {
+			cache = new SolutionCache(1 << 20);
+			cache.loadState(cacheFile);
+			SudokuSolverToolkit.setSolutionCache(cache);
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			InputStream in = file == null || file.equals("-") ? System.in : new FileInputStream(file);
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII),
+					1 << 16);
+			Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII),
+					1 << 16);
+			Statistics stats = solveAll(reader, writer, pool, strategy, threads * windowPerThread);
+			writer.flush();
+			reader.close();
+			System.err.println(stats.summary(threads));
+			if (cache != null) {
+				System.err.println("Solution cache: " + cache);
+				cache.saveState(cacheFile);
+			}
+		} catch (IOException e) {
+			System.err.println(e);
+			System.exit(1);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Solves every puzzle read from the reader and writes the results to the
+	 * writer in input order.
+	 *
+	 * @param reader
+	 *            the source of the puzzles, one per line
+	 * @param writer
+	 *            the destination of the results, one per line
+	 * @param pool
+	 *            the worker threads to solve the puzzles on
+	 * @param strategy
+	 *            the {@code SolverStrategy} to solve the puzzles with
+	 * @param window
+	 *            the maximum number of puzzles in flight
+	 * @return the statistics of the run
+	 * @throws IOException
+	 *             if reading or writing fails
+	 */
+	private static Statistics solveAll(BufferedReader reader, Writer writer, ExecutorService pool,
+			SolverStrategy strategy, int window) throws IOException {
+		ArrayDeque<Future<Result>> inFlight = new ArrayDeque<Future<Result>>(window);
+		Statistics stats = new Statistics();
+
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.trim().isEmpty())
+				continue;
+			if (inFlight.size() == window)
+				write(inFlight.poll(), writer, stats);
+			inFlight.add(pool.submit(new Task(line, strategy)));
+		}
+		while (!inFlight.isEmpty())
+			write(inFlight.poll(), writer, stats);
+
+		stats.finish();
+		return stats;
+	}
+
+	/**
+	 * Waits for the result of a puzzle, writes it, and records it in the
+	 * statistics.
+	 */
+	private static void write(Future<Result> f, Writer writer, Statistics stats) throws IOException {
+		Result r;
+		try {
+			r = f.get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new IOException(e);
+		}
+
+		writer.write(r.output);
+		writer.write('\n');
+		stats.record(r);
+	}
+
+	/**
+	 * Parses a line into a row-major grid, working out the size of the board
+	 * from the length of the line.
+	 *
+	 * @param line
+	 *            the line to parse
+	 * @return the grid, or null if the line is not a puzzle
+	 * @see SudokuGame#fromSymbol(char)
+	 */
+	private static int[] parse(String line) {
+		String p = line.trim();
+		int size = (int) Math.round(Math.sqrt(p.length()));
+		if (size * size != p.length() || !SudokuGame.isValidSize(size))
+			return null;
+
+		int[] grid = new int[p.length()];
+		for (int i = 0; i < grid.length; i++) {
+			grid[i] = SudokuGame.fromSymbol(p.charAt(i));
+			if (grid[i] < 0 || grid[i] > size)
+				return null;
+		}
+		return grid;
+	}
+
+	/**
+	 * Solves one line of the input on a worker thread.
+	 *
+	 * @author Declan
+	 *
+	 */
+	private static class Task implements Callable<Result> {
+
+		/**
+		 * The line of input to solve
+		 */
+		private final String line;
+
+		/**
+		 * The {@code SolverStrategy} to solve the line with
+		 */
+		private final SolverStrategy strategy;
+
+		/**
+		 * Constructs and initializes a {@code Task} for one line of input
+		 * 
+		 * @param l
+		 *            the line of input to solve
+		 * @param s
+		 *            the {@code SolverStrategy} to solve the line with
+		 */
+		Task(String l, SolverStrategy s) {
+			line = l;
+			strategy = s;
+		}
+
+		@Override
+		public Result call() {
+			long start = System.nanoTime();
+			int[] grid = parse(line);
+			if (grid == null)
+				return new Result(line + invalid, Result.INVALID, System.nanoTime() - start);
+
+			boolean solved;
+			try {
+				solved = SudokuSolverToolkit.solveGrid(grid, strategy);
+			} catch (RuntimeException e) {
+				return new Result(line + invalid, Result.INVALID, System.nanoTime() - start);
+			}
+			if (!solved)
+				return new Result(line + unsolvable, Result.UNSOLVABLE, System.nanoTime() - start);
+
+			char[] out = new char[grid.length];
+			for (int i = 0; i < grid.length; i++)
+				out[i] = SudokuGame.toSymbol(grid[i]);
+			return new Result(new String(out), Result.SOLVED, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * The outcome of solving one line of the input.
+	 *
+	 * @author Declan
+	 *
+	 */
+	private static class Result {
+
+		/**
+		 * The possible outcomes of solving a line
+		 */
+		static final int SOLVED = 0, UNSOLVABLE = 1, INVALID = 2;
+
+		/**
+		 * The line to write to the output
+		 */
+		final String output;
+
+		/**
+		 * One of {@link #SOLVED}, {@link #UNSOLVABLE} or {@link #INVALID}
+		 */
+		final int outcome;
+
+		/**
+		 * The number of nanoseconds it took to parse and solve the line
+		 */
+		final long latency;
+
+		/**
+		 * Constructs and initializes a {@code Result}
+		 * 
+		 * @param o
+		 *            the line to write to the output
+		 * @param c
+		 *            the outcome of solving the line
+		 * @param l
+		 *            the number of nanoseconds it took to parse and solve the
+		 *            line
+		 */
+		Result(String o, int c, long l) {
+			output = o;
+			outcome = c;
+			latency = l;
+		}
+	}
+
+	/**
+	 * The counts, throughput and latency distribution of a run. Latencies are
+	 * kept in a fixed number of logarithmic buckets, each split into
+	 * {@code 2^SUB_BITS} linear sub-buckets, so percentiles are accurate to
+	 * within about 3% no matter how many puzzles are solved.
+	 *
+	 * @author Declan
+	 *
+	 */
+	private static class Statistics {
+
+		/**
+		 * The number of bits of precision kept below the leading bit of a
+		 * latency
+		 */
+		private static final int SUB_BITS = 5;
+
+		/**
+		 * The number of latencies recorded in every bucket
+		 */
+		private final long[] buckets = new long[64 << SUB_BITS];
+
+		/**
+		 * The number of lines with every outcome
+		 */
+		private final long[] outcomes = new long[3];
+
+		/**
+		 * The {@link System#nanoTime()} the run started at
+		 */
+		private final long start = System.nanoTime();
+
+		/**
+		 * The number of nanoseconds the run took
+		 */
+		private long elapsed;
+
+		/**
+		 * The number of lines recorded
+		 */
+		private long total;
+
+		/**
+		 * Records the outcome and latency of one line
+		 * 
+		 * @param r
+		 *            the {@code Result} of the line
+		 */
+		void record(Result r) {
+			outcomes[r.outcome]++;
+			total++;
+			buckets[bucket(Math.max(r.latency, 1))]++;
+		}
+
+		/**
+		 * Stops the clock of the run
+		 */
+		void finish() {
+			elapsed = System.nanoTime() - start;
+		}
+
+		/**
+		 * @return the bucket of a latency, where every power of two is split
+		 *         into linear sub-buckets
+		 */
+		private static int bucket(long v) {
+			int exp = 63 - Long.numberOfLeadingZeros(v);
+			if (exp < SUB_BITS)
+				return (int) v;
+			int sub = (int) (v >>> (exp - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+			return ((exp - SUB_BITS + 1) << SUB_BITS) + sub;
+		}
+
+		/**
+		 * @return the smallest latency that falls in a bucket
+		 */
+		private static long lowest(int b) {
+			int exp = (b >>> SUB_BITS) + SUB_BITS - 1;
+			if (b < (1 << SUB_BITS))
+				return b;
+			int sub = b & ((1 << SUB_BITS) - 1);
+			return ((long) ((1 << SUB_BITS) | sub)) << (exp - SUB_BITS);
+		}
+
+		/**
+		 * @return the latency, in nanoseconds, below which the specified
+		 *         fraction of the puzzles were solved
+		 */
+		long percentile(double p) {
+			long rank = (long) Math.ceil(p * total);
+			long seen = 0;
+			for (int b = 0; b < buckets.length; b++) {
+				seen += buckets[b];
+				if (seen >= rank && seen > 0)
+					return lowest(b);
+			}
+			return 0;
+		}
+
+		/**
+		 * @return a one line summary of the run
+		 */
+		String summary(int threads) {
+			double seconds = elapsed / 1e9;
+			return String.format(Locale.ROOT, "%d puzzles (%d solved, %d unsolvable, %d invalid) in %.3f s "
+					+ "on %d threads: %.1f puzzles/s, latency p50 %.1f us, p99 %.1f us", total, outcomes[Result.SOLVED],
+					outcomes[Result.UNSOLVABLE], outcomes[Result.INVALID], seconds, threads,
+					seconds > 0 ? total / seconds : 0.0, percentile(0.50) / 1e3, percentile(0.99) / 1e3);
+		}
+	}
+}
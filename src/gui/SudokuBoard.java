@@ -1,7 +1,10 @@
 package gui;
 
+import game.Candidates;
+import game.Cell;
+import game.Region;
 import game.SudokuGame;
-import game.SudokuSolverToolkit;
+import game.SudokuGameListener;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
@@ -9,6 +12,7 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
@@ -16,7 +20,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
-import java.util.ArrayList;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
 import javax.swing.AbstractAction;
 import javax.swing.ActionMap;
@@ -50,32 +55,73 @@ public class SudokuBoard extends JPanel {
 	 */
 	private static final Color defaultColor = SudokuGame.getDefaultColors()[0];
 
+	/**
+	 * The side length of one cell on a regular 9x9 {@code SudokuBoard}. The
+	 * cells of larger boards are shrunk so the board keeps about the same size
+	 */
+	private static final int regularCellSize = 55;
+
+	/**
+	 * The smallest side length of one cell, however large the board is
+	 */
+	private static final int minimumCellSize = 28;
+
 	/**
 	 * The side length of one cell on the {@code SudokuBoard}
 	 */
-	private static final int cellSize = 55;
+	private final int cellSize;
 
 	/**
 	 * The width of the border of a cell on the {@code SudokuBoard}
 	 */
 	private static final int borderWidth = 6;
 
+	/**
+	 * The stroke of the outline of every cell
+	 */
+	private static final BasicStroke thinStroke = new BasicStroke(2);
+
+	/**
+	 * The stroke of the outline of the selected cell
+	 */
+	private static final BasicStroke thickStroke = new BasicStroke(4);
+
 	/**
 	 * The distance to inset the contents of each cell on the
 	 * {@code SudokuBoard}
 	 */
-	private static final int dx = 20, dy = 40;
+	private final int dx, dy;
+
+	/**
+	 * The point size of the contents of each cell
+	 */
+	private final int fontSize;
+
+	/**
+	 * The {@code Font} the contents of each cell are drawn in
+	 */
+	private final Font font;
+
+	/**
+	 * The symbol of every value, as the {@code String} drawn for it
+	 */
+	private final String[] symbols;
 
 	/**
 	 * The number of cells in one row on the {@code SudokuBoard}
 	 */
-	private static final int boxLength = 9;
+	private final int boxLength;
+
+	/**
+	 * The number of cells in one row of a box on the {@code SudokuBoard}
+	 */
+	private final int boxSize;
 
 	/**
 	 * An array of {@code Rectangle} objects that contain the location and size
 	 * information for the cells on the {@code SudokuBoard}
 	 */
-	private Rectangle[][] boxes = new Rectangle[boxLength][boxLength];
+	private Rectangle[][] boxes;
 
 	/**
 	 * A boolean indicating whether or not the keyboard editing mode is engaged
@@ -93,6 +139,35 @@ public class SudokuBoard extends JPanel {
 	 */
 	private boolean editConstant = false;
 
+	/**
+	 * The candidate mask the last tooltip was made for, whose text is handed
+	 * out again for as long as the mouse points at the same candidates
+	 */
+	private int tipMask;
+
+	/**
+	 * The text of the last tooltip
+	 */
+	private String tip;
+
+	/**
+	 * The offscreen image every cell is drawn into, which is copied to the
+	 * screen when the {@code SudokuBoard} is painted. Null until the first
+	 * paint, and whenever it has to be made again at a new scale
+	 */
+	private BufferedImage image;
+
+	/**
+	 * The scale of the device the offscreen image was made for
+	 */
+	private double imageScale;
+
+	/**
+	 * The look every cell was last drawn into the offscreen image with, as
+	 * packed by {@link #lookOf(int, int)}, or -1 if it has not been drawn
+	 */
+	private final long[] drawn;
+
 	/**
 	 * Constructs and initializes a {@code SudokuBoard} object, which will be
 	 * used in conjunction with the specified {@code SudokuGame} object
@@ -103,6 +178,18 @@ public class SudokuBoard extends JPanel {
 	 */
 	public SudokuBoard(SudokuGame g) {
 		this.game = g;
+		boxLength = g.getSize();
+		boxSize = g.getBoxSize();
+		cellSize = Math.min(regularCellSize, Math.max(minimumCellSize, regularCellSize * 9 / boxLength));
+		dx = cellSize * 20 / regularCellSize;
+		dy = cellSize * 40 / regularCellSize;
+		fontSize = cellSize * 40 / regularCellSize;
+		font = new Font("Serif", Font.PLAIN, fontSize);
+		symbols = new String[boxLength + 1];
+		for (int v = 1; v <= boxLength; v++)
+			symbols[v] = String.valueOf(SudokuGame.toSymbol(v));
+		drawn = new long[boxLength * boxLength];
+		boxes = new Rectangle[boxLength][boxLength];
 		createBoxes();
 		setFocusable(true);
 		setBackground(backgroundColor);
@@ -119,6 +206,21 @@ public class SudokuBoard extends JPanel {
 
 		addKeyBindings();
 		setToolTipText("");
+
+		game.addSudokuGameListener(new SudokuGameListener() {
+
+			@Override
+			public void cellChanged(SudokuGame g, int x, int y, int prev, int post) {
+				repaintCell(x, y);
+			}
+
+			@Override
+			public void regionStateChanged(SudokuGame g, Region r, boolean complete, int duplicates) {
+				for (Cell c : r.getCells())
+					repaintCell(c.getPoint().y, c.getPoint().x);
+			}
+
+		});
 	}
 
 	/**
@@ -144,10 +246,17 @@ public class SudokuBoard extends JPanel {
 		in.put(KeyStroke.getKeyStroke("RIGHT"), "RI");
 		ap.put("RI", new BoardDirectionAction("Right"));
 
-		for (int i = 0; i <= 9; i++) {
+		for (int i = 0; i <= Math.min(9, boxLength); i++) {
 			in.put(KeyStroke.getKeyStroke(String.valueOf(i)), String.valueOf(i) + "_NAV");
 			in.put(KeyStroke.getKeyStroke("NUMPAD" + String.valueOf(i)), String.valueOf(i) + "_NAV");
-			ap.put(String.valueOf(i) + "_NAV", new BoardNumberAction(String.valueOf(i)));
+			ap.put(String.valueOf(i) + "_NAV", new BoardNumberAction(i));
+		}
+
+		// Values above 9 are typed as the letter they are shown as
+		for (int i = 10; i <= boxLength; i++) {
+			String key = String.valueOf(SudokuGame.toSymbol(i));
+			in.put(KeyStroke.getKeyStroke(key), key + "_NAV");
+			ap.put(key + "_NAV", new BoardNumberAction(i));
 		}
 	}
 
@@ -177,19 +286,19 @@ public class SudokuBoard extends JPanel {
 				switch ((String) getValue(SHORT_DESCRIPTION)) {
 				case "Up":
 					moveSelection(selection.x, selection.y - 1);
-					repaint();
+					repaintCells();
 					break;
 				case "Down":
 					moveSelection(selection.x, selection.y + 1);
-					repaint();
+					repaintCells();
 					break;
 				case "Left":
 					moveSelection(selection.x - 1, selection.y);
-					repaint();
+					repaintCells();
 					break;
 				case "Right":
 					moveSelection(selection.x + 1, selection.y);
-					repaint();
+					repaintCells();
 					break;
 				}
 			}
@@ -207,27 +316,30 @@ public class SudokuBoard extends JPanel {
 	 */
 	private class BoardNumberAction extends AbstractAction {
 
+		/**
+		 * The value this action sets the selected {@code Cell} to
+		 */
+		private final int value;
+
 		/**
 		 * Constructs and initializes a {@code BoardDirectionAction} which is in
 		 * charge of handling one number, either numpad or not, and the
 		 * resulting action
 		 * 
 		 * @param num
-		 *            the {@code String} representation of the number on the
-		 *            keyboard that corresponds to this action
+		 *            the value of the number or letter key on the keyboard that
+		 *            corresponds to this action
 		 */
-		BoardNumberAction(String num) {
-			putValue(NAME, num);
+		BoardNumberAction(int num) {
+			putValue(NAME, String.valueOf(SudokuGame.toSymbol(num)));
+			value = num;
 		}
 
 		@Override
 		public void actionPerformed(ActionEvent e) {
 			if (engaged && !editConstant) {
-				int parsed = Integer.parseInt(String.valueOf(getValue(NAME)));
-				int prev = game.get(selection.y, selection.x).getContent();
-				game.get(selection.y, selection.x).setContent(parsed);
+				int prev = game.set(selection.y, selection.x, value);
 				game.registerTurn(game.get(selection.y, selection.x), prev);
-				repaint();
 			}
 		}
 
@@ -247,12 +359,10 @@ public class SudokuBoard extends JPanel {
 		public void actionPerformed(ActionEvent e) {
 			if (!editConstant)
 				engaged = !engaged;
-			else {
+			else
 				game.get(selection.y, selection.x).setEditable(!game.get(selection.y, selection.x).isEditable());
-				repaint();
-			}
 
-			repaint();
+			repaintCells();
 		}
 	}
 
@@ -267,8 +377,8 @@ public class SudokuBoard extends JPanel {
 	 *            the y coordinate to move the {@code Point} selection to
 	 */
 	private void moveSelection(int x, int y) {
-		x = x < 0 ? x + 9 : x % 9;
-		y = y < 0 ? y + 9 : y % 9;
+		x = x < 0 ? x + boxLength : x % boxLength;
+		y = y < 0 ? y + boxLength : y % boxLength;
 		selection.move(x, y);
 	}
 
@@ -283,20 +393,42 @@ public class SudokuBoard extends JPanel {
 	 *            the number of units that the user scrolled
 	 */
 	private void scrollValue(Point p, int units) {
-		for (int i = 0; i < boxes.length; i++) {
-			for (int j = 0; j < boxes[i].length; j++) {
-				if (boxes[i][j].contains(p)) {
-					int x = game.get(i, j).getContent();
-					if (units > 0)
-						game.get(i, j).setContent((x - 1) < 0 ? x + 9 : (x - 1) % 10);
-					else
-						game.get(i, j).setContent((x + 1) < 0 ? x + 9 : (x + 1) % 10);
-
-					game.registerTurn(game.get(i, j), x);
-				}
-			}
+		int i = cellAt(p.y), j = cellAt(p.x);
+		if (i >= 0 && j >= 0) {
+			int x = game.get(i, j).getContent();
+			if (units > 0)
+				game.set(i, j, (x - 1) < 0 ? x + boxLength : (x - 1) % (boxLength + 1));
+			else
+				game.set(i, j, (x + 1) < 0 ? x + boxLength : (x + 1) % (boxLength + 1));
+
+			game.registerTurn(game.get(i, j), x);
 		}
-		repaint();
+	}
+
+	/**
+	 * Finds the row or column of cells that a coordinate on the
+	 * {@code SudokuBoard} falls in, by working backwards through the layout
+	 * of {@link #createBoxes()}: every box of cells is followed by an extra
+	 * border, and every cell by a border of its own.
+	 * 
+	 * @param c
+	 *            the y coordinate to find the row of, or the x coordinate to
+	 *            find the column of
+	 * @return the row or column of the cell whose {@code Rectangle} contains
+	 *         the coordinate, or -1 if it falls between cells
+	 */
+	private int cellAt(int c) {
+		int pitch = cellSize + borderWidth;
+		int stride = boxSize * pitch + borderWidth;
+		int u = c - borderWidth;
+		if (u < 0)
+			return -1;
+
+		int r = u % stride, k = r / pitch;
+		if (k >= boxSize || r % pitch >= cellSize + 2)
+			return -1;
+		int n = u / stride * boxSize + k;
+		return n < boxLength ? n : -1;
 	}
 
 	/**
@@ -310,11 +442,11 @@ public class SudokuBoard extends JPanel {
 			for (int j = 0; j < boxes[i].length; j++) {
 				boxes[i][j] = new Rectangle(new Point(x, y), new Dimension(cellSize + 2, cellSize + 2));
 				x += cellSize + borderWidth;
-				if (j == 2 || j == 5)
+				if (j % boxSize == boxSize - 1 && j != boxes[i].length - 1)
 					x += borderWidth;
 			}
 			y += cellSize + borderWidth;
-			if (i == 2 || i == 5)
+			if (i % boxSize == boxSize - 1 && i != boxes.length - 1)
 				y += borderWidth;
 			x = borderWidth;
 		}
@@ -322,147 +454,201 @@ public class SudokuBoard extends JPanel {
 
 	@Override
 	protected void paintComponent(Graphics g) {
-		Graphics2D g2 = (Graphics2D) g;
-		super.paintComponent(g2);
+		super.paintComponent(g);
 		if (game == null)
 			return;
 
-		g2.setStroke(new BasicStroke(2));
-		g2.setColor(backgroundColor);
-		if (!editConstant) {
-			drawBoxes(g2);
-			drawOccupants(g2);
-		} else {
-			drawConstantBoxes(g2);
-			drawFadedContents(g2);
-		}
+		render(false);
+		Dimension d = getPreferredSize();
+		g.drawImage(image, 0, 0, d.width, d.height, null);
+	}
 
+	/**
+	 * Redraws every cell whose look changed into the offscreen image, and
+	 * repaints only those cells on the screen. Changes to the
+	 * {@code SudokuGame} repaint themselves through its listener, so this is
+	 * only needed when the selection or the editability of a cell changes
+	 */
+	private void repaintCells() {
+		if (image == null)
+			repaint();
+		else
+			render(true);
 	}
 
 	/**
-	 * Draws the contents of each cell when the editConstant toggle is switched
-	 * to true
+	 * Redraws one cell into the offscreen image and repaints it on the
+	 * screen, if its look changed since it was last drawn. Nothing is done
+	 * before the first paint, which draws every cell anyway
 	 * 
-	 * @param g
-	 *            the {@code Graphics2D} object used to draw the contents
+	 * @param i
+	 *            the row of the cell
+	 * @param j
+	 *            the column of the cell
 	 */
-	private void drawFadedContents(Graphics2D g) {
-		g.setFont(new Font("Serif", Font.PLAIN, 40));
-		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_GASP);
-		g.setColor(Color.GRAY);
-		for (int i = 0; i < boxes.length; i++) {
-			for (int j = 0; j < boxes[i].length; j++) {
-				if (game.get(i, j).getContent() != 0) {
-					int x = boxes[i][j].x + dx;
-					int y = boxes[i][j].y + dy;
-					g.drawString(String.valueOf(game.get(i, j).getContent()), x, y);
-				}
-			}
-		}
+	private void repaintCell(int i, int j) {
+		long look = lookOf(i, j);
+		if (image == null || drawn[i * boxLength + j] == look)
+			return;
 
-		g.setColor(defaultColor);
+		Graphics2D g = createImageGraphics();
+		drawCell(g, i, j);
+		g.dispose();
+		drawn[i * boxLength + j] = look;
+		repaint(slotOf(i, j));
 	}
 
 	/**
-	 * Draws the cells when the editConstant toggle is switched to true
+	 * Redraws every cell whose look changed since it was last drawn into the
+	 * offscreen image, making the image first if there is none yet for the
+	 * scale of the current device.
 	 * 
-	 * @param g
-	 *            the {@code Graphics2D} object used to draw the {@code Cells}
+	 * @param schedule
+	 *            whether or not to repaint the redrawn cells on the screen,
+	 *            which is not needed while the {@code SudokuBoard} is already
+	 *            being painted
 	 */
-	private void drawConstantBoxes(Graphics2D g) {
-		for (int i = 0; i < boxes.length; i++) {
-			for (int j = 0; j < boxes[i].length; j++) {
-				if (game.get(i, j).isEditable())
-					g.setColor(Color.WHITE);
-				else
-					g.setColor(Color.BLACK);
-
-				g.fill(boxes[i][j]);
-
-				if (game.get(i, j).getPoint().equals(selection) && engaged) {
-					if (game.get(i, j).isEditable())
-						g.setColor(Color.BLACK);
-					else
-						g.setColor(Color.WHITE);
-					g.setStroke(new BasicStroke(4));
-					g.draw(boxes[i][j]);
-					g.setStroke(new BasicStroke(2));
-				}
-			}
+	private void render(boolean schedule) {
+		GraphicsConfiguration gc = getGraphicsConfiguration();
+		double scale = gc == null ? 1 : gc.getDefaultTransform().getScaleX();
+		if (image == null || scale != imageScale) {
+			Dimension d = getPreferredSize();
+			int w = (int) Math.ceil(d.width * scale), h = (int) Math.ceil(d.height * scale);
+			image = gc == null ? new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB) : gc.createCompatibleImage(w, h);
+			imageScale = scale;
+			Arrays.fill(drawn, -1);
+
+			Graphics2D bg = image.createGraphics();
+			bg.setColor(backgroundColor);
+			bg.fillRect(0, 0, w, h);
+			bg.dispose();
 		}
 
-		g.setColor(backgroundColor);
+		Graphics2D g = null;
+		for (int i = 0; i < boxLength; i++)
+			for (int j = 0; j < boxLength; j++) {
+				long look = lookOf(i, j);
+				if (drawn[i * boxLength + j] == look)
+					continue;
+
+				if (g == null)
+					g = createImageGraphics();
+				drawCell(g, i, j);
+				drawn[i * boxLength + j] = look;
+				if (schedule)
+					repaint(slotOf(i, j));
+			}
+		if (g != null)
+			g.dispose();
 	}
 
 	/**
-	 * Used to draw every {@code Cell} the is displayed on the
-	 * {@code SudokuBoard} when the editConstant toggle is not in effect
-	 * 
-	 * @param g
-	 *            the {@code Graphics2D} object used to draw each {@code Cell}
+	 * @return a {@code Graphics2D} object that draws cells into the offscreen
+	 *         image at its scale, which has to be disposed of afterwards
 	 */
-	private void drawBoxes(Graphics2D g) {
-		for (int i = 0; i < boxes.length; i++) {
-			for (int j = 0; j < boxes[i].length; j++) {
-				if (game.get(i, j).getPoint().equals(selection) && engaged) {
-					g.setColor(defaultColor);
-					g.setStroke(new BasicStroke(4));
-					g.draw(boxes[i][j]);
-					g.setStroke(new BasicStroke(2));
-				}
-
-				if (SudokuGameFrame.highlighting)
-					g.setColor(game.get(i, j).getColor());
-				else
-					g.setColor(defaultColor);
+	private Graphics2D createImageGraphics() {
+		Graphics2D g = image.createGraphics();
+		g.scale(imageScale, imageScale);
+		g.setFont(font);
+		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_GASP);
+		return g;
+	}
 
-				g.draw(boxes[i][j]);
+	/**
+	 * Packs everything that decides how a cell is drawn into one number, so
+	 * that a cell only has to be drawn again when its number changes
+	 * 
+	 * @param i
+	 *            the row of the cell
+	 * @param j
+	 *            the column of the cell
+	 * @return the look of the cell, which is never negative
+	 */
+	private long lookOf(int i, int j) {
+		Cell c = game.get(i, j);
+		long look = c.getContent();
+		look = look << 24 | (c.getColor().getRGB() & 0xFFFFFF);
+		look = look << 1 | (c.isEditable() ? 1 : 0);
+		look = look << 1 | (engaged && selection.x == j && selection.y == i ? 1 : 0);
+		look = look << 1 | (editConstant ? 1 : 0);
+		look = look << 1 | (SudokuGameFrame.highlighting ? 1 : 0);
+		return look;
+	}
 
-			}
-		}
-		g.setColor(defaultColor);
+	/**
+	 * @return the area a cell is drawn in, which reaches half way into the
+	 *         gap between its {@code Rectangle} and the next, so that the
+	 *         thick outline of a selected cell fits without the areas of two
+	 *         cells overlapping
+	 */
+	private Rectangle slotOf(int i, int j) {
+		Rectangle b = boxes[i][j];
+		int h = (cellSize + borderWidth - b.width) / 2;
+		return new Rectangle(b.x - h, b.y - h, b.width + 2 * h, b.height + 2 * h);
 	}
 
 	/**
-	 * This method is used to draw the contents of each {@code Cell} when the
-	 * editConstant toggle is not in effect
+	 * Draws one cell, its outline and its contents, over whatever was drawn
+	 * in its place before. When the editConstant toggle is in effect, cells
+	 * are filled in black if they are constant and the contents are faded.
 	 * 
 	 * @param g
-	 *            the {@code Graphics2D} object used to draw the contents
+	 *            the {@code Graphics2D} object of the offscreen image
+	 * @param i
+	 *            the row of the cell
+	 * @param j
+	 *            the column of the cell
 	 */
-	private void drawOccupants(Graphics2D g) {
-		g.setFont(new Font("Serif", Font.PLAIN, 40));
-		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_GASP);
-		for (int i = 0; i < boxes.length; i++) {
-			for (int j = 0; j < boxes[i].length; j++) {
-				if (game.get(i, j).getContent() != 0) {
-					if (game.get(i, j).isEditable() && SudokuGameFrame.highlighting)
-						g.setColor(game.get(i, j).getColor().darker());
-					else
-						g.setColor(defaultColor);
-					int x = boxes[i][j].x + dx;
-					int y = boxes[i][j].y + dy;
-					g.drawString(String.valueOf(game.get(i, j).getContent()), x, y);
-				}
+	private void drawCell(Graphics2D g, int i, int j) {
+		Rectangle b = boxes[i][j];
+		Cell c = game.get(i, j);
+		boolean selected = engaged && selection.x == j && selection.y == i;
+
+		Rectangle slot = slotOf(i, j);
+		g.setClip(slot);
+		g.setColor(backgroundColor);
+		g.fill(slot);
+
+		if (!editConstant) {
+			if (selected) {
+				g.setColor(defaultColor);
+				g.setStroke(thickStroke);
+				g.draw(b);
 			}
-		}
+			g.setStroke(thinStroke);
+			g.setColor(SudokuGameFrame.highlighting ? c.getColor() : defaultColor);
+			g.draw(b);
 
-		g.setColor(defaultColor);
+			if (c.getContent() != 0) {
+				if (c.isEditable() && SudokuGameFrame.highlighting)
+					g.setColor(c.getColor().darker());
+				else
+					g.setColor(defaultColor);
+				g.drawString(symbols[c.getContent()], b.x + dx, b.y + dy);
+			}
+		} else {
+			g.setColor(c.isEditable() ? Color.WHITE : Color.BLACK);
+			g.fill(b);
+			if (selected) {
+				g.setColor(c.isEditable() ? Color.BLACK : Color.WHITE);
+				g.setStroke(thickStroke);
+				g.draw(b);
+			}
+
+			if (c.getContent() != 0) {
+				g.setColor(Color.GRAY);
+				g.drawString(symbols[c.getContent()], b.x + dx, b.y + dy);
+			}
+		}
 	}
 
 	@Override
 	public Dimension getPreferredSize() {
-		int l = (int) ((2 * (borderWidth - 1)) + (boxLength * (cellSize + 4)) + (2 * (boxLength - 1)) + (2 * borderWidth));
+		Rectangle last = boxes[boxLength - 1][boxLength - 1];
+		int l = last.x + last.width + borderWidth;
 		return new Dimension(l, l);
 	}
 
-	@Override
-	public void repaint() {
-		if (game != null)
-			game.refresh();
-		super.repaint();
-	}
-
 	@Override
 	public String toString() {
 		return game.getName() + " Board";
@@ -501,13 +687,13 @@ public class SudokuBoard extends JPanel {
 	@Override
 	public String getToolTipText(MouseEvent event) {
 		if (SudokuGameFrame.tooltips) {
-			Point p = event.getPoint();
-			ArrayList<Integer> poss = new ArrayList<Integer>();
-			for (int i = 0; i < boxes.length; i++)
-				for (int j = 0; j < boxes[i].length; j++)
-					if (boxes[i][j].contains(p))
-						poss = SudokuSolverToolkit.calculatePossible(game, new Point(j, i));
-			return "Possibilities: " + poss.toString();
+			int i = cellAt(event.getY()), j = cellAt(event.getX());
+			int poss = i < 0 || j < 0 ? Candidates.NONE : game.getCandidates(i, j);
+			if (tip == null || poss != tipMask) {
+				tipMask = poss;
+				tip = "Possibilities: " + Candidates.toString(poss);
+			}
+			return tip;
 		} else
 			return "";
 	}
@@ -1,9 +1,14 @@
 package gui;
 
+import game.SolutionCache;
+import game.SolveProgressListener;
 import game.SudokuGame;
+import game.SudokuGenerator;
+import game.SudokuGenerator.Difficulty;
 import game.SudokuSolverToolkit;
 
 import java.awt.AWTKeyStroke;
+import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Image;
 import java.awt.KeyboardFocusManager;
@@ -19,15 +24,23 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 
 import javax.imageio.ImageIO;
 import javax.swing.AbstractAction;
+import javax.swing.BorderFactory;
 import javax.swing.InputMap;
+import javax.swing.JButton;
 import javax.swing.JColorChooser;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
@@ -36,6 +49,7 @@ import javax.swing.JPanel;
 import javax.swing.JTabbedPane;
 import javax.swing.KeyStroke;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.colorchooser.AbstractColorChooserPanel;
 import javax.swing.filechooser.FileFilter;
 
@@ -77,6 +91,28 @@ public class SudokuGameFrame extends JFrame implements Runnable {
 	 */
 	private static final String prevFileGame = "prevGameState.ser";
 
+	/**
+	 * The filename of the serialized {@code SolutionCache}
+	 */
+	private static final String prevFileCache = "solutionCache.ser";
+
+	/**
+	 * The solutions of the puzzles solved in this and earlier sessions, kept
+	 * in front of the {@code SudokuSolverToolkit}
+	 */
+	private SolutionCache solutions = new SolutionCache();
+
+	/**
+	 * The number of seconds a solve started from the menu may run for
+	 */
+	private static final long solveBudget = 30;
+
+	/**
+	 * The number of milliseconds a solve has to run for before its progress
+	 * dialog is shown
+	 */
+	private static final int solveDialogDelay = 250;
+
 	/**
 	 * Boolean that determines for the objects that actually draw the board,
 	 * whether or not to turn on highlighting
@@ -106,9 +142,13 @@ public class SudokuGameFrame extends JFrame implements Runnable {
 	public SudokuGameFrame() {
 		super("Sudoku");
 
+		// Reload the solutions found in earlier sessions
+		solutions.loadState(prevFileCache);
+		SudokuSolverToolkit.setSolutionCache(solutions);
+
 		// Reload previous games if any
 		if (!loadPrevious())
-			addGame(SudokuWebParser.stripGame());
+			addGame(SudokuGenerator.generateGame("Generated Game", Difficulty.MEDIUM));
 
 		// Add icons
 		Image img = null;
@@ -133,6 +173,7 @@ public class SudokuGameFrame extends JFrame implements Runnable {
 			@Override
 			public void windowClosed(WindowEvent e) {
 				gameReg.saveState(prevFileGame);
+				solutions.saveState(prevFileCache);
 			}
 
 		});
@@ -272,6 +313,39 @@ public class SudokuGameFrame extends JFrame implements Runnable {
 		});
 		file.add(newGame);
 
+		// Creates a new blank SudokuGame on one of the larger boards
+		JMenu newLarge = new JMenu("New Large Game");
+		for (final int size : new int[] { 16, 25 }) {
+			newLarge.add(new JMenuItem(new AbstractAction(size + "x" + size) {
+
+				@Override
+				public void actionPerformed(ActionEvent e) {
+					addGame(new SudokuGame("Unsaved Game", size));
+					repaint();
+				}
+
+			}));
+		}
+		file.add(newLarge);
+
+		// Generates a new game locally, with the chosen difficulty
+		JMenu generate = new JMenu("Generate Game");
+		generate.setMnemonic(KeyEvent.VK_G);
+		for (final Difficulty d : Difficulty.values()) {
+			String title = d.name().charAt(0) + d.name().substring(1).toLowerCase();
+			generate.add(new JMenuItem(new AbstractAction(title) {
+
+				@Override
+				public void actionPerformed(ActionEvent e) {
+					String title = (String) getValue(NAME);
+					addGame(SudokuGenerator.generateGame(title + " Game", d));
+					repaint();
+				}
+
+			}));
+		}
+		file.add(generate);
+
 		// Opens a game from a .game file with the displayed name as the name of
 		// the file
 		JMenuItem openGame = new JMenuItem(new AbstractAction("Open Game") {
@@ -563,7 +637,6 @@ public class SudokuGameFrame extends JFrame implements Runnable {
 				if (temp == null)
 					return;
 				temp.getGame().undo();
-				temp.repaint();
 			}
 
 		});
@@ -583,7 +656,6 @@ public class SudokuGameFrame extends JFrame implements Runnable {
 				if (temp == null)
 					return;
 				temp.getGame().redo();
-				temp.repaint();
 			}
 
 		});
@@ -635,7 +707,7 @@ public class SudokuGameFrame extends JFrame implements Runnable {
 
 		game.addSeparator();
 
-		// Solves the game with a brute force backtracking method
+		// Solves the game on a background thread, leaving the window responsive
 		JMenuItem solve = new JMenuItem(new AbstractAction("Solve Game") {
 
 			{
@@ -653,12 +725,7 @@ public class SudokuGameFrame extends JFrame implements Runnable {
 					return;
 				}
 
-				boolean result = SudokuSolverToolkit.solveGame(current);
-				if (!result)
-					JOptionPane.showMessageDialog(null, "This game can't be solved!");
-
-				current.refresh();
-				repaint();
+				solveInBackground(temp);
 			}
 
 		});
@@ -669,4 +736,92 @@ public class SudokuGameFrame extends JFrame implements Runnable {
 		bar.add(game);
 	}
 
+	/**
+	 * Solves the {@code SudokuGame} of a {@code SudokuBoard} on a background
+	 * thread. A dialog showing the progress of the solve and allowing it to be
+	 * cancelled appears if the solve takes longer than a moment. The solution
+	 * is applied to the {@code SudokuGame} all at once on the event dispatch
+	 * thread, and only if the game hasn't changed in a conflicting way in the
+	 * meantime.
+	 * 
+	 * @param b
+	 *            the {@code SudokuBoard} whose {@code SudokuGame} to solve
+	 */
+	private void solveInBackground(final SudokuBoard b) {
+		final SudokuGame current = b.getGame();
+		final JLabel status = new JLabel("Solving " + current.getName() + "...");
+		final CompletableFuture<int[]> solution = SudokuSolverToolkit.solveAsync(current, solveBudget, TimeUnit.SECONDS, new SolveProgressListener() {
+
+			@Override
+			public void progress(final long nodes, final int depth) {
+				SwingUtilities.invokeLater(new Runnable() {
+
+					@Override
+					public void run() {
+						status.setText("Explored " + nodes + " steps, " + depth + " guesses deep");
+					}
+
+				});
+			}
+
+		});
+
+		final JDialog dialog = new JDialog(this, "Solve Game", false);
+		JButton cancel = new JButton(new AbstractAction("Cancel") {
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				solution.cancel(false);
+			}
+
+		});
+		JPanel content = new JPanel(new BorderLayout(10, 10));
+		content.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+		content.add(status, BorderLayout.CENTER);
+		content.add(cancel, BorderLayout.EAST);
+		dialog.add(content);
+		dialog.pack();
+		dialog.setLocationRelativeTo(this);
+
+		// Only bother the user with the dialog if the solve takes a while
+		final Timer delay = new Timer(solveDialogDelay, new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if (!solution.isDone())
+					dialog.setVisible(true);
+			}
+
+		});
+		delay.setRepeats(false);
+		delay.start();
+
+		solution.whenComplete(new BiConsumer<int[], Throwable>() {
+
+			@Override
+			public void accept(final int[] result, final Throwable t) {
+				SwingUtilities.invokeLater(new Runnable() {
+
+					@Override
+					public void run() {
+						delay.stop();
+						dialog.dispose();
+						if (t instanceof CancellationException)
+							return;
+						else if (t instanceof TimeoutException)
+							JOptionPane.showMessageDialog(null, "The solver ran out of time!");
+						else if (t != null)
+							JOptionPane.showMessageDialog(null, "The solver failed: " + t);
+						else if (result == null)
+							JOptionPane.showMessageDialog(null, "This game can't be solved!");
+						else if (!SudokuSolverToolkit.fill(current, result))
+							JOptionPane.showMessageDialog(null, "The game was changed while it was being solved!");
+					}
+
+				});
+			}
+
+		});
+	}
+
 }
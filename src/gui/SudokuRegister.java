@@ -1,18 +1,28 @@
 package gui;
 
+import game.GameReader;
+import game.GameWriter;
+
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 
 /**
  * This class is responsible for saving the state of one specific subclass of
  * {@code SudokuSerializable} between sessions of the application.
+ * <p>
+ * Registers and single {@code SudokuSerializables} are saved in the binary
+ * format of {@code GameWriter}. Files saved with Java serialization by
+ * earlier versions of the application can still be loaded, and are saved in
+ * the binary format the next time they are saved.
  * 
  * @author Declan
  *
@@ -91,10 +101,7 @@ public class SudokuRegister<T extends SudokuSerializable> implements Serializabl
 	 */
 	public void saveState(String n) {
 		try {
-			FileOutputStream fos = new FileOutputStream(n);
-			ObjectOutputStream oos = new ObjectOutputStream(fos);
-			oos.writeObject(this);
-			oos.close();
+			write(new File(n).toPath(), registered);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -110,17 +117,20 @@ public class SudokuRegister<T extends SudokuSerializable> implements Serializabl
 	 */
 	@SuppressWarnings("unchecked")
 	public void loadState(String n) {
-		SudokuRegister<T> temp = null;
+		ArrayList<T> temp = new ArrayList<T>();
 		try {
-			FileInputStream fis = new FileInputStream(n);
-			ObjectInputStream ois = new ObjectInputStream(fis);
-			temp = (SudokuRegister<T>) ois.readObject();
-			ois.close();
-		} catch (IOException | ClassNotFoundException e) {
+			ArrayList<Object> loaded = new ArrayList<Object>();
+			Object legacy = read(new File(n).toPath(), loaded);
+			if (legacy != null)
+				temp = ((SudokuRegister<T>) legacy).registered;
+			else
+				for (Object o : loaded)
+					temp.add((T) (SudokuSerializable) o);
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
 			e.printStackTrace();
-			temp = new SudokuRegister<T>();
+			temp = new ArrayList<T>();
 		}
-		this.registered = temp.registered;
+		this.registered = temp;
 	}
 
 	/**
@@ -135,11 +145,10 @@ public class SudokuRegister<T extends SudokuSerializable> implements Serializabl
 		SudokuSerializable re = null;
 
 		try {
-			FileInputStream fis = new FileInputStream(in);
-			ObjectInputStream ois = new ObjectInputStream(fis);
-			re = (SudokuSerializable) ois.readObject();
-			ois.close();
-		} catch (IOException | ClassNotFoundException e) {
+			ArrayList<Object> loaded = new ArrayList<Object>(1);
+			Object legacy = read(in.toPath(), loaded);
+			re = (SudokuSerializable) (legacy != null ? legacy : loaded.get(0));
+		} catch (IOException | ClassNotFoundException | ClassCastException | IndexOutOfBoundsException e) {
 			e.printStackTrace();
 		}
 
@@ -157,15 +166,71 @@ public class SudokuRegister<T extends SudokuSerializable> implements Serializabl
 	public static void save(SudokuSerializable out) {
 		try {
 			File loc = out.isSaved() ? out.getSave() : new File(out.getName() + out.getSuffix());
-			FileOutputStream fos = new FileOutputStream(loc);
-			ObjectOutputStream oos = new ObjectOutputStream(fos);
-			oos.writeObject(out);
-			oos.close();
+			ArrayList<SudokuSerializable> one = new ArrayList<SudokuSerializable>(1);
+			one.add(out);
+			write(loc.toPath(), one);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Writes a list of {@code SudokuSerializables} to a file in the binary
+	 * format of {@code GameWriter}, replacing whatever the file held
+	 * 
+	 * @param p
+	 *            the {@code Path} of the file to write
+	 * @param list
+	 *            the {@code SudokuSerializables} to write
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	private static void write(Path p, Collection<? extends SudokuSerializable> list) throws IOException {
+		FileChannel ch = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			GameWriter w = new GameWriter(ch, list.size());
+			for (SudokuSerializable s : list)
+				w.write(s);
+			w.flush();
+		} finally {
+			ch.close();
+		}
+	}
+
+	/**
+	 * Reads a file written by {@link #write(Path, Collection)}, or a file
+	 * saved with Java serialization by an earlier version of the application
+	 * 
+	 * @param p
+	 *            the {@code Path} of the file to read
+	 * @param list
+	 *            the list to add the records of a binary file to
+	 * @return the object held by a file saved with Java serialization, or null
+	 *         if the file is in the binary format
+	 * @throws IOException
+	 *             if the file cannot be read or is not valid
+	 * @throws ClassNotFoundException
+	 *             if the file holds an object whose class cannot be found
+	 */
+	private static Object read(Path p, ArrayList<Object> list) throws IOException, ClassNotFoundException {
+		FileChannel ch = FileChannel.open(p, StandardOpenOption.READ);
+		try {
+			if (!GameReader.isGameFile(ch)) {
+				ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(Channels.newInputStream(ch)));
+				return ois.readObject();
+			}
+
+			GameReader r = new GameReader(ch);
+			list.ensureCapacity(r.getCount());
+			for (int i = 0; i < r.getCount(); i++)
+				list.add(r.read());
+			return null;
+		} finally {
+			ch.close();
+		}
+	}
+
 	/**
 	 * Provides access to underlying methods of the {@code ArrayList} that
 	 * provides storage in this class.
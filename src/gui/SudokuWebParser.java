@@ -1,7 +1,8 @@
 package gui;
 
-import game.Cell;
 import game.SudokuGame;
+import game.SudokuGenerator;
+import game.SudokuGenerator.Difficulty;
 
 import java.awt.Point;
 import java.io.BufferedReader;
@@ -60,7 +61,8 @@ public class SudokuWebParser {
 	 * for parsing the HTML via regex.
 	 * 
 	 * @return A {@code SudokuGame} that is stripped from the websudoku.com
-	 *         database
+	 *         database, or a locally generated {@code SudokuGame} if the site
+	 *         couldn't be reached
 	 */
 	public static SudokuGame stripGame() {
 		String doc = getHTML("http://show.websudoku.com/");
@@ -68,7 +70,7 @@ public class SudokuWebParser {
 		Matcher m = p.matcher(doc);
 		ArrayList<Point> points = new ArrayList<>();
 		ArrayList<Integer> values = new ArrayList<>();
-		SudokuGame game = new SudokuGame("Unsaved Game");
+		SudokuGame game;
 
 		int count = 0;
 		while (m.find()) {
@@ -78,7 +80,7 @@ public class SudokuWebParser {
 			count += 1;
 		}
 		if (count == 0)
-			return game;
+			return SudokuGenerator.generateGame("Generated Game", Difficulty.MEDIUM);
 
 		game = new SudokuGame("Web Game");
 		fillGame(game, values, points);
@@ -101,9 +103,8 @@ public class SudokuWebParser {
 	 */
 	private static void fillGame(SudokuGame daily, ArrayList<Integer> values, ArrayList<Point> points) {
 		for (int i = 0; i < values.size(); i++) {
-			Cell c = daily.get(points.get(i).y, points.get(i).x);
-			c.setContent(values.get(i));
-			c.setEditable(false);
+			daily.set(points.get(i).y, points.get(i).x, values.get(i));
+			daily.get(points.get(i).y, points.get(i).x).setEditable(false);
 		}
 	}
 